@@ -0,0 +1,60 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures validation of <code>contentLength</code> chars of content copied into a {@link String} first,
+ * as text of a field is read, against validation of the content in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LargeContentBenchmark {
+
+	@Param({"1024", "1048576"})
+	public int contentLength;
+
+	@Param({"nonEmpty", "email", "numeric"})
+	public String validatorName;
+
+	private ICharSequenceValidator validator;
+	private StringBuilder content;
+
+	@Setup
+	public void setUp() {
+		if ("nonEmpty".equals(validatorName)) {
+			validator = new NonEmptyValidator();
+		} else if ("email".equals(validatorName)) {
+			validator = new EmailValidator();
+		} else {
+			validator = new NumericValidator();
+		}
+		content = new StringBuilder(contentLength);
+		for (int i = 0; i < contentLength; i++) {
+			content.append((char) ('0' + i % 10));
+		}
+	}
+
+	@Benchmark
+	public ValidationResult copied() {
+		return validator.validate(content.toString());
+	}
+
+	@Benchmark
+	public ValidationResult inPlace() {
+		return validator.validate(content, 0, content.length());
+	}
+
+}
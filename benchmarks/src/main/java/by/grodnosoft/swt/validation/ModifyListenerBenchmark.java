@@ -0,0 +1,76 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ITextAccessor;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures what a validation listener of a single field does on modification: reading field text
+ * and running its validators. Fields are headless stand-ins for SWT controls, so no display is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModifyListenerBenchmark {
+
+	/**
+	 * Read reflectively via its <code>getText()</code> method like custom controls
+	 */
+	public static class ReflectiveField {
+		public String getText() {
+			return "user@host.com";
+		}
+	}
+
+	/**
+	 * Read via registered accessor like common SWT controls
+	 */
+	public static class RegisteredField {
+		String getValue() {
+			return "user@host.com";
+		}
+	}
+
+	static {
+		TextAccessors.register(RegisteredField.class, new ITextAccessor<RegisteredField>() {
+			@Override
+			public String getText(RegisteredField field) {
+				return field.getValue();
+			}
+		});
+	}
+
+	private final IValidator[] validators = new IValidator[] {ValidationToolkit.NON_EMPTY, ValidationToolkit.EMAIL};
+	private final ReflectiveField reflectiveField = new ReflectiveField();
+	private final RegisteredField registeredField = new RegisteredField();
+
+	@Benchmark
+	public String reflectiveAccessor() {
+		return TextAccessors.getText(reflectiveField);
+	}
+
+	@Benchmark
+	public String registeredAccessor() {
+		return TextAccessors.getText(registeredField);
+	}
+
+	@Benchmark
+	public ValidationResult reflectiveFieldModified() {
+		return ValidationToolkit.validateText(validators, TextAccessors.getText(reflectiveField), null);
+	}
+
+	@Benchmark
+	public ValidationResult registeredFieldModified() {
+		return ValidationToolkit.validateText(validators, TextAccessors.getText(registeredField), null);
+	}
+
+}
@@ -0,0 +1,56 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures {@link NumericValidator} for every primitive number type on valid, invalid and pathological inputs,
+ * the latter being a number of hundreds of digits padded with whitespaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NumericValidatorBenchmark {
+
+	@Param({"java.lang.Byte", "java.lang.Short", "java.lang.Integer",
+		"java.lang.Long", "java.lang.Float", "java.lang.Double"})
+	public String numberType;
+
+	private NumericValidator validator;
+	private String pathologicalValue;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() throws ClassNotFoundException {
+		validator = new NumericValidator();
+		validator.setNumberType((Class<? extends Number>) Class.forName(numberType));
+		String spaces = ValidatorBenchmark.repeat(" ", 100);
+		pathologicalValue = spaces + ValidatorBenchmark.repeat("9", 300) + spaces;
+	}
+
+	@Benchmark
+	public ValidationResult valid() {
+		return validator.validate("42");
+	}
+
+	@Benchmark
+	public ValidationResult invalid() {
+		return validator.validate("4x2");
+	}
+
+	@Benchmark
+	public ValidationResult pathological() {
+		return validator.validate(pathologicalValue);
+	}
+
+}
@@ -0,0 +1,69 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.RegexValidator.Engine;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Compares {@link Engine#JAVA_REGEX} and {@link Engine#DFA} engines on built-in email and phone number
+ * validators. Near miss inputs make backtracking engine take quadratic time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegexEngineBenchmark {
+
+	@Param({"JAVA_REGEX", "DFA"})
+	public Engine engine;
+
+	private EmailValidator emailValidator;
+	private PhoneNumberValidator phoneNumberValidator;
+	private String nearMissEmail;
+
+	@Setup
+	public void setUp() {
+		emailValidator = new EmailValidator(engine);
+		phoneNumberValidator = new PhoneNumberValidator(engine);
+		StringBuilder email = new StringBuilder("a@");
+		for (int i = 0; i < 200; i++) {
+			email.append("a.");
+		}
+		nearMissEmail = email.append("a1").toString();
+	}
+
+	@Benchmark
+	public ValidationResult validEmail() {
+		return emailValidator.validate("email.with.dots@test.host.with.dots");
+	}
+
+	@Benchmark
+	public ValidationResult invalidEmail() {
+		return emailValidator.validate("wrong+symbols@*host*.com");
+	}
+
+	@Benchmark
+	public ValidationResult nearMissEmail() {
+		return emailValidator.validate(nearMissEmail);
+	}
+
+	@Benchmark
+	public ValidationResult validPhoneNumber() {
+		return phoneNumberValidator.validate("+1 (123) 456-7890");
+	}
+
+	@Benchmark
+	public ValidationResult invalidPhoneNumber() {
+		return phoneNumberValidator.validate("123..456..7890");
+	}
+
+}
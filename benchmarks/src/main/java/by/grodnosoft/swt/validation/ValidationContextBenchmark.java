@@ -0,0 +1,80 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationContext;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures cost of a single keystroke in a form of <code>formSize</code> fields
+ * validated via {@link ValidationContext}. Keystroke cost should not depend on form size.
+ *
+ * Needs a display to run, i.e. <code>xvfb-run java -jar target/benchmarks.jar ValidationContextBenchmark</code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationContextBenchmark {
+
+	@Param({"10", "50", "200"})
+	public int formSize;
+
+	private Display display;
+	private Shell shell;
+	private Text modifiedField;
+	private boolean toggle;
+
+	@Setup
+	public void setUp(final Blackhole blackhole) {
+		display = new Display();
+		shell = new Shell(display);
+		ValidationContext ctx = new ValidationContext(new ValidationCallback() {
+			@Override
+			public void validationDone(ValidationResult result) {
+				blackhole.consume(result);
+			}
+		});
+		IValidator[] validators = new IValidator[] {ValidationToolkit.NON_EMPTY, ValidationToolkit.EMAIL};
+		for (int i = 0; i < formSize; i++) {
+			Text field = new Text(shell, SWT.BORDER);
+			field.setText("user" + i + "@host.com");
+			ctx.setupField(field, validators);
+			if (i == 0) {
+				modifiedField = field;
+			}
+		}
+		ValidationToolkit.setupValidation(ctx);
+		// first change validates the whole form, keep it out of measurement
+		modifiedField.setText("warm@up.com");
+	}
+
+	@TearDown
+	public void tearDown() {
+		shell.dispose();
+		display.dispose();
+	}
+
+	@Benchmark
+	public void keystroke() {
+		toggle = !toggle;
+		modifiedField.setText(toggle ? "user@host.com" : "user@host.co");
+	}
+
+}
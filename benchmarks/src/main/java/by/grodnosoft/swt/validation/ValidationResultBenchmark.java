@@ -0,0 +1,56 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures aggregation of <code>resultCount</code> child results into a compound {@link ValidationResult},
+ * every tenth of them being an error.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidationResultBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int resultCount;
+
+	private IValidator[] validators;
+
+	@Setup
+	public void setUp() {
+		validators = new IValidator[resultCount];
+		for (int i = 0; i < resultCount; i++) {
+			validators[i] = i % 10 == 0 ? ValidationToolkit.NUMERIC : ValidationToolkit.NON_EMPTY;
+		}
+	}
+
+	@Benchmark
+	public ValidationResult aggregate() {
+		return ValidationToolkit.validateText(validators, "value", null);
+	}
+
+	@Benchmark
+	public int aggregateAndReadMessages() {
+		int length = 0;
+		for (ValidationResult child : ValidationToolkit.validateText(validators, "value", null).getChildren()) {
+			String message = child.getMessage();
+			if (message != null) {
+				length += message.length();
+			}
+		}
+		return length;
+	}
+
+}
@@ -0,0 +1,121 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Measures built-in validators with default engine on valid, invalid and pathological inputs,
+ * the latter being long values which are invalid only at their very end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidatorBenchmark {
+
+	private static final int PATHOLOGICAL_LENGTH = 400;
+
+	private IValidator regexValidator;
+	private PhoneNumberValidator phoneNumberValidator;
+	private final char[] phoneNumberBuffer = new char[PhoneNumberValidator.MAX_NORMALIZED_LENGTH];
+	private String longValue;
+	private String pathologicalEmail;
+	private String pathologicalPhoneNumber;
+	private String pathologicalRegexValue;
+
+	@Setup
+	public void setUp() {
+		// nested quantifiers make backtracking engine try every split of a near miss
+		regexValidator = new RegexValidator("(\\w+\\s?)+");
+		phoneNumberValidator = new PhoneNumberValidator();
+		phoneNumberValidator.setDefaultCountryCode("1");
+		longValue = repeat("a", PATHOLOGICAL_LENGTH);
+		pathologicalEmail = "a@" + repeat("a.", PATHOLOGICAL_LENGTH / 2) + "a1";
+		pathologicalPhoneNumber = "+" + repeat("1 ", PATHOLOGICAL_LENGTH / 2) + "-";
+		// backtracking could double with every word char, keep them few enough to measure a call, not a hang
+		pathologicalRegexValue = repeat("word", 4) + "!";
+	}
+
+	@Benchmark
+	public ValidationResult nonEmptyValid() {
+		return ValidationToolkit.NON_EMPTY.validate("value");
+	}
+
+	@Benchmark
+	public ValidationResult nonEmptyInvalid() {
+		return ValidationToolkit.NON_EMPTY.validate("");
+	}
+
+	@Benchmark
+	public ValidationResult nonEmptyPathological() {
+		return ValidationToolkit.NON_EMPTY.validate(longValue);
+	}
+
+	@Benchmark
+	public ValidationResult emailValid() {
+		return ValidationToolkit.EMAIL.validate("email.with.dots@test.host.with.dots");
+	}
+
+	@Benchmark
+	public ValidationResult emailInvalid() {
+		return ValidationToolkit.EMAIL.validate("wrong+symbols@*host*.com");
+	}
+
+	@Benchmark
+	public ValidationResult emailPathological() {
+		return ValidationToolkit.EMAIL.validate(pathologicalEmail);
+	}
+
+	@Benchmark
+	public ValidationResult phoneNumberValid() {
+		return ValidationToolkit.PHONE_NUMBER.validate("+1 (123) 456-7890");
+	}
+
+	@Benchmark
+	public ValidationResult phoneNumberInvalid() {
+		return ValidationToolkit.PHONE_NUMBER.validate("123..456..7890");
+	}
+
+	@Benchmark
+	public ValidationResult phoneNumberPathological() {
+		return ValidationToolkit.PHONE_NUMBER.validate(pathologicalPhoneNumber);
+	}
+
+	@Benchmark
+	public int phoneNumberNormalize() {
+		return phoneNumberValidator.normalize("(123) 456-7890", phoneNumberBuffer);
+	}
+
+	@Benchmark
+	public ValidationResult regexValid() {
+		return regexValidator.validate("some words here");
+	}
+
+	@Benchmark
+	public ValidationResult regexInvalid() {
+		return regexValidator.validate("!");
+	}
+
+	@Benchmark
+	public ValidationResult regexPathological() {
+		return regexValidator.validate(pathologicalRegexValue);
+	}
+
+	static String repeat(String value, int times) {
+		StringBuilder builder = new StringBuilder(value.length() * times);
+		for (int i = 0; i < times; i++) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
+}
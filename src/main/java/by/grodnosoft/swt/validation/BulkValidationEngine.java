@@ -0,0 +1,220 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Validates records described by {@link ValidationSchema} without any UI, i.e. rows of batch imports.
+ * Records are split into chunks validated in parallel on a {@link ForkJoinPool}, so validators
+ * of the schema are called from many threads at once and should be thread-safe.
+ * Built-in validators are thread-safe as long as they are not reconfigured while in use.
+ * <p>
+ * Validators are called as they are, incremental ones do not create field validators here.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class BulkValidationEngine {
+
+	public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+	/**
+	 * Receives results of records validated batch by batch
+	 */
+	public interface BatchCallback {
+		/**
+		 * @param firstRecord number of the first record of a batch in the whole sequence
+		 */
+		void batchValidated(long firstRecord, BulkValidationResult result);
+	}
+
+	private final ValidationSchema schema;
+	private final IValidator[][] validators;
+	private final ForkJoinPool pool;
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * Creates engine validating records on a pool shared by all engines with default parallelism.
+	 *
+	 * @param schema should not be modified after engine is created, can't be <code>null</code>
+	 * @throws IllegalArgumentException if schema is <code>null</code>
+	 */
+	public BulkValidationEngine(ValidationSchema schema) {
+		this(schema, DefaultPool.INSTANCE);
+	}
+
+	/**
+	 * @param schema should not be modified after engine is created, can't be <code>null</code>
+	 * @param pool to validate records on, can't be <code>null</code>
+	 * @throws IllegalArgumentException if either schema or pool are <code>null</code>
+	 */
+	public BulkValidationEngine(ValidationSchema schema, ForkJoinPool pool) {
+		if (schema == null) {
+			throw new IllegalArgumentException("Schema can't be null!");
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool can't be null!");
+		}
+		this.schema = schema;
+		this.validators = schema.getValidators();
+		this.pool = pool;
+	}
+
+	/**
+	 * @param chunkSize number of records validated by a single task without splitting, should be positive
+	 * @throws IllegalArgumentException if chunkSize is not positive
+	 */
+	public void setChunkSize(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("Chunk size should be positive!");
+		}
+		this.chunkSize = chunkSize;
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public BulkValidationResult validate(String[][] records) {
+		return validate(Arrays.asList(records));
+	}
+
+	/**
+	 * @param records values of every record ordered as schema fields, missing values are validated as <code>null</code>
+	 */
+	public BulkValidationResult validate(List<String[]> records) {
+		if (records == null) {
+			throw new IllegalArgumentException("Records can't be null!");
+		}
+		int recordCount = records.size();
+		if ((long) recordCount * validators.length > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					String.format("Too many records to validate at once: %d, validate them in batches", recordCount));
+		}
+		byte[] statuses = new byte[recordCount * validators.length];
+		Map<Integer, ValidationResult> failures = pool.invoke(
+				new ValidationTask(records, 0, recordCount, statuses, chunkSize));
+		if (failures == null) {
+			failures = new HashMap<Integer, ValidationResult>();
+		}
+		return new BulkValidationResult(schema, recordCount, statuses, failures);
+	}
+
+	/**
+	 * Validates a sequence of records of any size, i.e. read from a file, batch by batch.
+	 * Only one batch is kept in memory at a time and records of a batch are validated in parallel.
+	 *
+	 * @param batchSize number of records validated at once, should be positive
+	 * @param callback called with results of every batch in order of records, can't be <code>null</code>
+	 */
+	public void validate(Iterator<String[]> records, int batchSize, BatchCallback callback) {
+		if (records == null) {
+			throw new IllegalArgumentException("Records can't be null!");
+		}
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("Batch size should be positive!");
+		}
+		if (callback == null) {
+			throw new IllegalArgumentException("Callback can't be null!");
+		}
+		long firstRecord = 0;
+		List<String[]> batch = new ArrayList<String[]>(batchSize);
+		while (records.hasNext()) {
+			batch.add(records.next());
+			if (batch.size() == batchSize) {
+				callback.batchValidated(firstRecord, validate(batch));
+				firstRecord += batch.size();
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			callback.batchValidated(firstRecord, validate(batch));
+		}
+	}
+
+	/**
+	 * Validates a range of records, splitting it in halves until it's not bigger than a chunk.
+	 * Statuses are written right into shared array since ranges never overlap,
+	 * results which are not OK are returned and merged (<code>null</code> if there are none).
+	 */
+	private class ValidationTask extends RecursiveTask<Map<Integer, ValidationResult>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<String[]> records;
+		private final int from;
+		private final int to;
+		private final byte[] statuses;
+		private final int chunkSize;
+
+		ValidationTask(List<String[]> records, int from, int to, byte[] statuses, int chunkSize) {
+			this.records = records;
+			this.from = from;
+			this.to = to;
+			this.statuses = statuses;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected Map<Integer, ValidationResult> compute() {
+			if (to - from <= chunkSize) {
+				return validateRange();
+			}
+			int middle = (from + to) >>> 1;
+			ValidationTask left = new ValidationTask(records, from, middle, statuses, chunkSize);
+			left.fork();
+			Map<Integer, ValidationResult> rightFailures =
+					new ValidationTask(records, middle, to, statuses, chunkSize).compute();
+			Map<Integer, ValidationResult> leftFailures = left.join();
+			if (leftFailures == null) {
+				return rightFailures;
+			} else if (rightFailures == null) {
+				return leftFailures;
+			}
+			leftFailures.putAll(rightFailures);
+			return leftFailures;
+		}
+
+		private Map<Integer, ValidationResult> validateRange() {
+			Map<Integer, ValidationResult> failures = null;
+			int fieldCount = validators.length;
+			for (int record = from; record < to; record++) {
+				String[] values = records.get(record);
+				for (int field = 0; field < fieldCount; field++) {
+					String value = values != null && field < values.length ? values[field] : null;
+					ValidationResult worst = null;
+					for (IValidator validator : validators[field]) {
+						ValidationResult result = ValidationMetrics.validate(validator, value);
+						if (worst == null || worst.getStatus().ordinal() < result.getStatus().ordinal()) {
+							worst = result;
+						}
+					}
+					int index = record * fieldCount + field;
+					statuses[index] = (byte) worst.getStatus().ordinal();
+					if (worst.getStatus() != ValidationStatus.OK) {
+						if (failures == null) {
+							failures = new HashMap<Integer, ValidationResult>();
+						}
+						failures.put(index, worst);
+					}
+				}
+			}
+			return failures;
+		}
+	}
+
+	private static class DefaultPool {
+		static final ForkJoinPool INSTANCE = new ForkJoinPool();
+	}
+
+}
@@ -0,0 +1,104 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.Map;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Results of records validated by {@link BulkValidationEngine}. Status of every field of every record
+ * is kept in a single byte, results themselves (with messages) are kept only for fields which are not OK.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class BulkValidationResult {
+
+	private static final ValidationStatus[] STATUSES = ValidationStatus.values();
+	private static final ValidationResult OK_RESULT = new ValidationResult(ValidationStatus.OK);
+
+	private final ValidationSchema schema;
+	private final int recordCount;
+	private final int fieldCount;
+	/** status ordinals, fieldCount per record */
+	private final byte[] statuses;
+	/** worst results of fields which are not OK by index in statuses */
+	private final Map<Integer, ValidationResult> failures;
+
+	BulkValidationResult(ValidationSchema schema, int recordCount, byte[] statuses, Map<Integer, ValidationResult> failures) {
+		this.schema = schema;
+		this.recordCount = recordCount;
+		this.fieldCount = schema.getFieldCount();
+		this.statuses = statuses;
+		this.failures = failures;
+	}
+
+	public ValidationSchema getSchema() {
+		return schema;
+	}
+
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * @return the worst status of all fields of given record
+	 */
+	public ValidationStatus getStatus(int record) {
+		checkRecord(record);
+		int worst = 0;
+		for (int i = record * fieldCount, end = i + fieldCount; i < end; i++) {
+			worst = Math.max(worst, statuses[i]);
+		}
+		return STATUSES[worst];
+	}
+
+	public ValidationStatus getStatus(int record, int field) {
+		return STATUSES[statuses[index(record, field)]];
+	}
+
+	/**
+	 * @return the worst result of given field validators, which is shared OK result
+	 *  without validator if all of them are OK
+	 */
+	public ValidationResult getResult(int record, int field) {
+		ValidationResult result = failures.get(index(record, field));
+		return result != null ? result : OK_RESULT;
+	}
+
+	public ValidationResult getResult(int record, String fieldName) {
+		int field = schema.getFieldIndex(fieldName);
+		if (field < 0) {
+			throw new IllegalArgumentException(String.format("There is no field %s in schema!", fieldName));
+		}
+		return getResult(record, field);
+	}
+
+	/**
+	 * @return number of records which worst status is the given one
+	 */
+	public int countRecords(ValidationStatus status) {
+		int count = 0;
+		for (int record = 0; record < recordCount; record++) {
+			if (getStatus(record) == status) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private int index(int record, int field) {
+		checkRecord(record);
+		if (field < 0 || field >= fieldCount) {
+			throw new IndexOutOfBoundsException(String.format("Field %d is out of [0, %d)", field, fieldCount));
+		}
+		return record * fieldCount + field;
+	}
+
+	private void checkRecord(int record) {
+		if (record < 0 || record >= recordCount) {
+			throw new IndexOutOfBoundsException(String.format("Record %d is out of [0, %d)", record, recordCount));
+		}
+	}
+
+}
@@ -0,0 +1,237 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Remembers results of another validator by validated value, so that values which are validated
+ * over and over (toggled by user or repeated in imported data) are validated only once.
+ * Wrapped validator should return the same result for the same value every time, i.e. incremental
+ * validators are called as they are and do not keep any state here.
+ * <p>
+ * Cache is bounded by number of values and optionally by their total length, the least recently
+ * used values are evicted first. Values could also expire some time after they were validated.
+ * Cache is split into stripes locked separately, so it could be used from many threads at once.
+ * Every stripe gets its share of limits, values longer than total length share of a stripe are not cached.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class CachingValidator implements ICostAwareValidator {
+
+	private static final int MAX_STRIPES = 16;
+	/** minimal limits of a stripe, so that small caches are not split too much */
+	private static final int MIN_STRIPE_SIZE = 8;
+	private static final long MIN_STRIPE_LENGTH = 1024;
+
+	private final IValidator validator;
+	private final long timeToLiveNanos;
+	private final Stripe[] stripes;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Creates cache bounded by number of values only, values never expire.
+	 *
+	 * @param validator to cache results of, not <code>null</code>
+	 * @param maxSize maximal number of cached values, should be positive
+	 * @throws IllegalArgumentException if validator is <code>null</code> or maxSize is not positive
+	 */
+	public CachingValidator(IValidator validator, int maxSize) {
+		this(validator, maxSize, Long.MAX_VALUE, 0, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param validator to cache results of, not <code>null</code>
+	 * @param maxSize maximal number of cached values, should be positive
+	 * @param maxTotalLength maximal total length of cached values, should be positive
+	 * @param timeToLive how long results are cached since validation, <code>0</code> to cache them until evicted
+	 * @param timeUnit of timeToLive, not <code>null</code>
+	 * @throws IllegalArgumentException if either validator or timeUnit are <code>null</code>,
+	 *  maxSize or maxTotalLength are not positive or timeToLive is negative
+	 */
+	public CachingValidator(IValidator validator, int maxSize, long maxTotalLength, long timeToLive, TimeUnit timeUnit) {
+		if (validator == null) {
+			throw new IllegalArgumentException("Validator can't be null!");
+		}
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Max size should be positive!");
+		}
+		if (maxTotalLength <= 0) {
+			throw new IllegalArgumentException("Max total length should be positive!");
+		}
+		if (timeToLive < 0) {
+			throw new IllegalArgumentException("Time to live can't be negative!");
+		}
+		if (timeUnit == null) {
+			throw new IllegalArgumentException("Time unit can't be null!");
+		}
+		this.validator = validator;
+		this.timeToLiveNanos = timeUnit.toNanos(timeToLive);
+		int stripeCount = 1;
+		while (stripeCount < MAX_STRIPES && stripeCount * 2 * MIN_STRIPE_SIZE <= maxSize
+				&& stripeCount * 2 * MIN_STRIPE_LENGTH <= maxTotalLength) {
+			stripeCount *= 2;
+		}
+		this.stripes = new Stripe[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			// the first stripes take the remainders, so that capacities sum up exactly
+			int stripeSize = maxSize / stripeCount + (i < maxSize % stripeCount ? 1 : 0);
+			long stripeLength = maxTotalLength / stripeCount + (i < maxTotalLength % stripeCount ? 1 : 0);
+			stripes[i] = new Stripe(stripeSize, Math.max(1, stripeLength));
+		}
+	}
+
+	public IValidator getValidator() {
+		return validator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(String valueToValidate) {
+		if (valueToValidate == null) {
+			return validator.validate(null);
+		}
+		Stripe stripe = stripeOf(valueToValidate);
+		ValidationResult result = stripe.get(valueToValidate);
+		if (result != null) {
+			hitCount.incrementAndGet();
+			return result;
+		}
+		missCount.incrementAndGet();
+		// validated without lock so that slow validation does not block other values of the stripe
+		result = validator.validate(valueToValidate);
+		stripe.put(valueToValidate, result);
+		return result;
+	}
+
+	/**
+	 * @return cost of wrapped validator, since every new value costs as much
+	 */
+	@Override
+	public int getCost() {
+		return validator instanceof ICostAwareValidator ? ((ICostAwareValidator) validator).getCost() : DEFAULT_COST;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return number of values evicted to fit size limits, expired ones are not counted
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	public double getHitRate() {
+		long hits = hitCount.get();
+		long total = hits + missCount.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return number of cached values, expired ones included until they are looked up or evicted
+	 */
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			size += stripe.size();
+		}
+		return size;
+	}
+
+	public void clear() {
+		for (Stripe stripe : stripes) {
+			stripe.clear();
+		}
+	}
+
+	private Stripe stripeOf(String value) {
+		int hash = value.hashCode();
+		hash ^= hash >>> 16;
+		return stripes[hash & (stripes.length - 1)];
+	}
+
+	private static final class Entry {
+
+		final ValidationResult result;
+		final long expiresAt;
+
+		Entry(ValidationResult result, long expiresAt) {
+			this.result = result;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Part of the cache with its own share of limits, accessed under its own lock
+	 */
+	private final class Stripe {
+
+		private final int maxSize;
+		private final long maxTotalLength;
+		/** ordered from the least to the most recently used value */
+		private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+		private long totalLength;
+
+		Stripe(int maxSize, long maxTotalLength) {
+			this.maxSize = maxSize;
+			this.maxTotalLength = maxTotalLength;
+		}
+
+		synchronized ValidationResult get(String value) {
+			Entry entry = entries.get(value);
+			if (entry == null) {
+				return null;
+			}
+			if (timeToLiveNanos > 0 && System.nanoTime() - entry.expiresAt >= 0) {
+				entries.remove(value);
+				totalLength -= value.length();
+				return null;
+			}
+			return entry.result;
+		}
+
+		synchronized void put(String value, ValidationResult result) {
+			if (value.length() > maxTotalLength) {
+				return;
+			}
+			Entry previous = entries.put(value, new Entry(result, System.nanoTime() + timeToLiveNanos));
+			if (previous == null) {
+				totalLength += value.length();
+			}
+			Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+			while (entries.size() > maxSize || totalLength > maxTotalLength) {
+				String evicted = eldest.next().getKey();
+				eldest.remove();
+				totalLength -= evicted.length();
+				evictionCount.incrementAndGet();
+			}
+		}
+
+		synchronized int size() {
+			return entries.size();
+		}
+
+		synchronized void clear() {
+			entries.clear();
+			totalLength = 0;
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package by.grodnosoft.swt.validation;
+
+/**
+ * View of a range of chars of another {@link CharSequence}, nothing is copied until {@link #toString()} is called.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class CharRange implements CharSequence {
+
+	private final CharSequence value;
+	private final int start;
+	private final int end;
+
+	private CharRange(CharSequence value, int start, int end) {
+		this.value = value;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return given value itself if range covers all of it, view of the range otherwise
+	 * @throws IndexOutOfBoundsException if range is not within value
+	 */
+	static CharSequence of(CharSequence value, int start, int end) {
+		if (start < 0 || end > value.length() || start > end) {
+			throw new IndexOutOfBoundsException(
+					String.format("Range [%d, %d) is out of [0, %d)", start, end, value.length()));
+		}
+		if (start == 0 && end == value.length()) {
+			return value;
+		}
+		if (value instanceof CharRange) {
+			CharRange range = (CharRange) value;
+			return new CharRange(range.value, range.start + start, range.start + end);
+		}
+		return new CharRange(value, start, end);
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= end - start) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+		return value.charAt(start + index);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return of(this, start, end);
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder(end - start).append(value, start, end).toString();
+	}
+
+}
@@ -0,0 +1,425 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Validates cells of a grid, i.e. a <code>SWT.VIRTUAL</code> Table with tens of thousands of rows, with
+ * validators of their columns. Rows are read from a {@link RowSource} rather than from widget items,
+ * which are not even created for rows never shown.
+ * <p>
+ * Rows are validated on UI thread when they are shown or changed, the rest of rows are validated
+ * in background on given executor. Status of every row is kept in a byte, so number of rows of every
+ * status (see {@link #getErrorCount()}) is always known without walking the rows. Validation is set up by
+ * {@link ValidationToolkit#setupColumnValidation(org.eclipse.swt.widgets.Table, RowSource, IValidator[][], Executor, RowValidationCallback)}
+ * and its Tree counterpart.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class ColumnValidation {
+
+	private static final ValidationStatus[] STATUSES = ValidationStatus.values();
+	private static final byte NOT_VALIDATED = -1;
+	/** rows validated in background between two callback calls */
+	private static final int BATCH_SIZE = 256;
+
+	/**
+	 * Model of the grid, it could be read from executor threads concurrently with UI thread
+	 */
+	public interface RowSource {
+		int getRowCount();
+
+		String getText(int row, int column);
+	}
+
+	/**
+	 * Callback notified when statuses of rows might have changed, on the thread which validated them
+	 */
+	public interface RowValidationCallback {
+		/**
+		 * @param fromRow index of the first validated row
+		 * @param toRow index after the last validated row
+		 */
+		void rowsValidated(int fromRow, int toRow);
+	}
+
+	private final RowSource source;
+	private final IValidator[][] columnValidators;
+	private final Executor executor;
+	private final RowValidationCallback callback;
+	private final Runnable sweep = new Runnable() {
+		@Override
+		public void run() {
+			sweepRows();
+		}
+	};
+
+	// guarded by this
+	/** ordinals of row statuses, NOT_VALIDATED for rows not validated yet */
+	private byte[] statuses = new byte[16];
+	private int rowCount;
+	private final int[] statusCounts = new int[STATUSES.length];
+	private int pendingCount;
+	/** row to look for rows not validated yet from, so that every batch does not scan validated rows again */
+	private int sweepCursor;
+	/** incremented whenever rows are inserted or removed, so that indexes of rows validated in background are checked */
+	private int structureVersion;
+	private boolean sweeping;
+	private boolean disposed;
+
+	/**
+	 * Validates rows of given source in background right away, if there is an executor.
+	 *
+	 * @param source rows to validate, not <code>null</code>
+	 * @param columnValidators validators of every column, <code>null</code> for columns which are not validated.
+	 *  Validators are called from UI thread and executor threads, so they should be thread-safe.
+	 * @param executor to validate rows which are not shown on, <code>null</code> to validate rows only when
+	 *  they are shown, changed or {@link #validateAll() validated explicitly}
+	 * @param callback notified when rows are validated, could be <code>null</code>
+	 * @throws IllegalArgumentException if either source or columnValidators are <code>null</code>
+	 */
+	public ColumnValidation(RowSource source, IValidator[][] columnValidators, Executor executor,
+			RowValidationCallback callback) {
+		if (source == null) {
+			throw new IllegalArgumentException("Row source can't be null!");
+		}
+		if (columnValidators == null) {
+			throw new IllegalArgumentException("Column validators can't be null!");
+		}
+		this.source = source;
+		this.columnValidators = new IValidator[columnValidators.length][];
+		for (int column = 0; column < columnValidators.length; column++) {
+			this.columnValidators[column] = columnValidators[column] != null
+					? columnValidators[column].clone() : new IValidator[0];
+		}
+		this.executor = executor;
+		this.callback = callback;
+		reset();
+	}
+
+	/**
+	 * Marks every row of the source as not validated, i.e. after the whole model was loaded again
+	 */
+	public void reset() {
+		int newRowCount = source.getRowCount();
+		synchronized (this) {
+			Arrays.fill(statusCounts, 0);
+			statuses = new byte[Math.max(newRowCount, 16)];
+			Arrays.fill(statuses, NOT_VALIDATED);
+			rowCount = newRowCount;
+			pendingCount = newRowCount;
+			structureVersion++;
+		}
+		scheduleSweep();
+	}
+
+	/**
+	 * Stops validating rows in background
+	 */
+	public synchronized void dispose() {
+		disposed = true;
+	}
+
+	/**
+	 * Validates given row right now if it was not validated yet, should be called when row is shown.
+	 *
+	 * @return status of given row
+	 */
+	public ValidationStatus rowShown(int row) {
+		ValidationStatus status = getRowStatus(row);
+		if (status != null) {
+			return status;
+		}
+		return rowChanged(row).getStatus();
+	}
+
+	/**
+	 * Validates given row right now, should be called when cells of the row are edited.
+	 *
+	 * @return compound result of the row with results of every validator of every column
+	 */
+	public ValidationResult rowChanged(int row) {
+		ValidationResult result = validateRow(row);
+		if (callback != null) {
+			callback.rowsValidated(row, row + 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Validates given row and updates its status, callback is not notified.
+	 *
+	 * @return compound result of the row with results of every validator of every column
+	 * @throws IndexOutOfBoundsException if there is no such row
+	 */
+	public ValidationResult validateRow(int row) {
+		checkRow(row);
+		ValidationResult result = new ValidationResult(ValidationStatus.OK);
+		for (int column = 0; column < columnValidators.length; column++) {
+			IValidator[] validators = columnValidators[column];
+			if (validators.length == 0) {
+				continue;
+			}
+			String text = source.getText(row, column);
+			for (IValidator validator : validators) {
+				result.addChildResult(ValidationMetrics.validate(validator, text), true);
+			}
+		}
+		synchronized (this) {
+			if (row < rowCount) {
+				setStatus(row, (byte) result.getStatus().ordinal());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Validates rows not validated yet right now on the calling thread
+	 */
+	public void validateAll() {
+		validatePending(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Replaces statuses of given rows with new rows which are not validated yet, should be called
+	 * when rows are inserted into or removed from the source.
+	 *
+	 * @param startRow index of the first replaced row
+	 * @param removedRowCount number of rows removed starting from startRow
+	 * @param insertedRowCount number of rows inserted at their place
+	 */
+	public void rowsReplaced(int startRow, int removedRowCount, int insertedRowCount) {
+		synchronized (this) {
+			if (startRow < 0 || removedRowCount < 0 || insertedRowCount < 0 || startRow + removedRowCount > rowCount) {
+				throw new IndexOutOfBoundsException(String.format("Rows [%d, %d) are out of [0, %d)",
+						startRow, startRow + removedRowCount, rowCount));
+			}
+			for (int row = startRow; row < startRow + removedRowCount; row++) {
+				if (statuses[row] == NOT_VALIDATED) {
+					pendingCount--;
+				} else {
+					statusCounts[statuses[row]]--;
+				}
+			}
+			int newRowCount = rowCount - removedRowCount + insertedRowCount;
+			if (newRowCount > statuses.length) {
+				statuses = Arrays.copyOf(statuses, Math.max(newRowCount, statuses.length * 2));
+			}
+			System.arraycopy(statuses, startRow + removedRowCount, statuses, startRow + insertedRowCount,
+					rowCount - startRow - removedRowCount);
+			Arrays.fill(statuses, startRow, startRow + insertedRowCount, NOT_VALIDATED);
+			rowCount = newRowCount;
+			pendingCount += insertedRowCount;
+			structureVersion++;
+		}
+		scheduleSweep();
+	}
+
+	public synchronized int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return status of given row as of its last validation, <code>null</code> if it was not validated yet
+	 * @throws IndexOutOfBoundsException if there is no such row
+	 */
+	public synchronized ValidationStatus getRowStatus(int row) {
+		checkRow(row);
+		return statuses[row] != NOT_VALIDATED ? STATUSES[statuses[row]] : null;
+	}
+
+	/**
+	 * @return number of validated rows of given status
+	 */
+	public synchronized int getRowCount(ValidationStatus status) {
+		return statusCounts[status.ordinal()];
+	}
+
+	/**
+	 * @return number of rows with errors
+	 */
+	public int getErrorCount() {
+		return getRowCount(ValidationStatus.ERROR);
+	}
+
+	/**
+	 * @return number of rows not validated yet
+	 */
+	public synchronized int getPendingRowCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * @return the worst status of validated rows
+	 */
+	public synchronized ValidationStatus getStatus() {
+		for (int i = STATUSES.length - 1; i > 0; i--) {
+			if (statusCounts[i] > 0) {
+				return STATUSES[i];
+			}
+		}
+		return ValidationStatus.OK;
+	}
+
+	/**
+	 * @return index of the first row of given status at or after given row, -1 if there is none
+	 */
+	public synchronized int findRow(ValidationStatus status, int fromRow) {
+		byte ordinal = (byte) status.ordinal();
+		for (int row = Math.max(fromRow, 0); row < rowCount; row++) {
+			if (statuses[row] == ordinal) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	private synchronized void checkRow(int row) {
+		if (row < 0 || row >= rowCount) {
+			throw new IndexOutOfBoundsException(String.valueOf(row));
+		}
+	}
+
+	/**
+	 * Should be called holding the lock
+	 */
+	private void setStatus(int row, byte ordinal) {
+		if (statuses[row] == NOT_VALIDATED) {
+			pendingCount--;
+		} else {
+			statusCounts[statuses[row]]--;
+		}
+		statuses[row] = ordinal;
+		statusCounts[ordinal]++;
+	}
+
+	private void scheduleSweep() {
+		synchronized (this) {
+			if (executor == null || sweeping || disposed || pendingCount == 0) {
+				return;
+			}
+			sweeping = true;
+		}
+		try {
+			executor.execute(sweep);
+		} catch (RejectedExecutionException e) {
+			// rows are validated when they are shown
+			synchronized (this) {
+				sweeping = false;
+			}
+		}
+	}
+
+	private void sweepRows() {
+		try {
+			while (validatePending(BATCH_SIZE)) {
+				// next batch
+			}
+		} finally {
+			synchronized (this) {
+				sweeping = false;
+			}
+		}
+		// rows might have been inserted after the last batch
+		scheduleSweep();
+	}
+
+	/**
+	 * Validates at most given number of rows not validated yet and notifies callback about them
+	 *
+	 * @return <code>true</code> if there might be more rows to validate
+	 */
+	private boolean validatePending(int maxRows) {
+		int fromRow = Integer.MAX_VALUE;
+		int toRow = -1;
+		int row;
+		synchronized (this) {
+			row = sweepCursor;
+		}
+		boolean more = true;
+		for (int i = 0; i < maxRows; i++) {
+			int structure;
+			synchronized (this) {
+				if (disposed) {
+					more = false;
+					break;
+				}
+				row = findPending(row);
+				if (row < 0) {
+					more = false;
+					break;
+				}
+				structure = structureVersion;
+			}
+			byte ordinal = validateStatus(row);
+			synchronized (this) {
+				// row validated on UI thread in the meantime has the latest status already
+				if (structure == structureVersion && statuses[row] == NOT_VALIDATED) {
+					setStatus(row, ordinal);
+					fromRow = Math.min(fromRow, row);
+					toRow = Math.max(toRow, row + 1);
+				}
+			}
+			row++;
+		}
+		if (row >= 0) {
+			synchronized (this) {
+				sweepCursor = row;
+			}
+		}
+		if (callback != null && toRow > fromRow) {
+			callback.rowsValidated(fromRow, toRow);
+		}
+		return more;
+	}
+
+	/**
+	 * Should be called holding the lock
+	 *
+	 * @return index of the first row not validated yet at or after given row, or before it if there is none after
+	 */
+	private int findPending(int fromRow) {
+		if (pendingCount == 0) {
+			return -1;
+		}
+		for (int row = Math.min(fromRow, rowCount); row < rowCount; row++) {
+			if (statuses[row] == NOT_VALIDATED) {
+				return row;
+			}
+		}
+		for (int row = 0; row < fromRow && row < rowCount; row++) {
+			if (statuses[row] == NOT_VALIDATED) {
+				return row;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return ordinal of the worst status of cells of given row, validation stops at the first error
+	 */
+	private byte validateStatus(int row) {
+		ValidationStatus worst = ValidationStatus.OK;
+		for (int column = 0; column < columnValidators.length && worst != ValidationStatus.ERROR; column++) {
+			IValidator[] validators = columnValidators[column];
+			if (validators.length == 0) {
+				continue;
+			}
+			String text = source.getText(row, column);
+			for (int i = 0; i < validators.length && worst != ValidationStatus.ERROR; i++) {
+				ValidationStatus status = ValidationMetrics.validate(validators[i], text).getStatus();
+				if (worst.compareTo(status) < 0) {
+					worst = status;
+				}
+			}
+		}
+		return (byte) worst.ordinal();
+	}
+
+}
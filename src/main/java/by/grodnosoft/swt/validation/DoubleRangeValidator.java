@@ -0,0 +1,72 @@
+package by.grodnosoft.swt.validation;
+
+/**
+ * Validates if field value is a {@link Double} number between min and max values.
+ * Parsed value is compared as a primitive, no {@link Number} objects are created.
+ * <code>NaN</code> is never in range.
+ * 
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class DoubleRangeValidator extends NumericValidator {
+
+	private final double min;
+	private final boolean minInclusive;
+	private final double max;
+	private final boolean maxInclusive;
+
+	/**
+	 * Creates validator of numbers between min and max values, both inclusive.
+	 * 
+	 * @throws IllegalArgumentException if min is bigger than max or any of them is <code>NaN</code>
+	 */
+	public DoubleRangeValidator(double min, double max) {
+		this(min, true, max, true);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if min is bigger than max or any of them is <code>NaN</code>
+	 */
+	public DoubleRangeValidator(double min, boolean minInclusive, double max, boolean maxInclusive) {
+		if (Double.isNaN(min) || Double.isNaN(max) || min > max) {
+			throw new IllegalArgumentException(
+					String.format("Min value %s should not be bigger than max value %s!", min, max));
+		}
+		this.min = min;
+		this.minInclusive = minInclusive;
+		this.max = max;
+		this.maxInclusive = maxInclusive;
+	}
+
+	/**
+	 * Set type of expected number, one of {@link Double} or {@link Float}.
+	 * Default number type is {@link Double}.
+	 * 
+	 * @throws IllegalArgumentException if numberType is not a floating point type
+	 */
+	@Override
+	public void setNumberType(Class<? extends Number> numberType) {
+		if (!Double.class.equals(numberType) && !Float.class.equals(numberType)) {
+			throw new IllegalArgumentException(
+					String.format("NumberType %s is not supported!", numberType));
+		}
+		super.setNumberType(numberType);
+	}
+
+	@Override
+	protected boolean isRangeChecked() {
+		return true;
+	}
+
+	@Override
+	protected boolean isInRange(double value) {
+		return (minInclusive ? value >= min : value > min)
+				&& (maxInclusive ? value <= max : value < max);
+	}
+
+	@Override
+	protected String getOutOfRangeMessage(String valueToValidate) {
+		return String.format("Value %s should be between %s and %s!", valueToValidate, min, max);
+	}
+
+}
@@ -0,0 +1,172 @@
+package by.grodnosoft.swt.validation;
+
+import java.net.IDN;
+
+/**
+ * Checks email addresses in a single pass over their chars without allocating anything,
+ * except for internationalized domains which are converted to ASCII to check their length.
+ * <p>
+ * Accepts the same addresses as regular expression of {@link EmailValidator} within RFC 5321 length limits:
+ * 64 chars of local part, 63 chars of domain label, 253 chars of domain and 254 chars of the whole address.
+ * With internationalized domains enabled, domain labels could also contain non-ASCII letters and digits
+ * and hyphens anywhere but at their ends, and top level domain could be a punycode one (<code>xn--</code>).
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class EmailScanner {
+
+	static final int MAX_LOCAL_PART_LENGTH = 64;
+	static final int MAX_LABEL_LENGTH = 63;
+	static final int MAX_DOMAIN_LENGTH = 253;
+	static final int MAX_ADDRESS_LENGTH = 254;
+
+	private EmailScanner() {
+	}
+
+	static boolean isValid(CharSequence value, boolean internationalDomains) {
+		int length = value.length();
+		if (length > MAX_ADDRESS_LENGTH) {
+			return false;
+		}
+
+		// local part: [_A-Za-z0-9-+]+(\.[_A-Za-z0-9-]+)*
+		int i = 0;
+		int atomLength = 0;
+		boolean firstAtom = true;
+		for (; i < length; i++) {
+			char c = value.charAt(i);
+			if (c == '@') {
+				break;
+			} else if (c == '.') {
+				if (atomLength == 0) {
+					return false;
+				}
+				atomLength = 0;
+				firstAtom = false;
+			} else if (isAsciiLetterOrDigit(c) || c == '_' || c == '-' || (c == '+' && firstAtom)) {
+				atomLength++;
+			} else {
+				return false;
+			}
+		}
+		if (i == length || atomLength == 0 || i > MAX_LOCAL_PART_LENGTH) {
+			return false;
+		}
+
+		// domain: [A-Za-z0-9-]+(\.[A-Za-z0-9]+)*(\.[A-Za-z]{2,})
+		int domainStart = i + 1;
+		if (length - domainStart > MAX_DOMAIN_LENGTH) {
+			return false;
+		}
+		int labelStart = domainStart;
+		int labelIndex = 0;
+		boolean hyphens = false;
+		boolean digits = false;
+		boolean nonAscii = false;
+		boolean anyNonAscii = false;
+		for (i = domainStart; i <= length; i++) {
+			char c = i < length ? value.charAt(i) : '.';
+			if (c == '.') {
+				int labelLength = i - labelStart;
+				if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH) {
+					return false;
+				}
+				if (internationalDomains) {
+					if (value.charAt(labelStart) == '-' || value.charAt(i - 1) == '-') {
+						return false;
+					}
+				} else if (hyphens && labelIndex > 0) {
+					return false;
+				}
+				if (i == length) {
+					// top level domain
+					if (labelIndex == 0) {
+						return false;
+					}
+					boolean letters = !hyphens && !digits && (nonAscii || labelLength >= 2);
+					if (!letters && !(internationalDomains && isPunycode(value, labelStart, i))) {
+						return false;
+					}
+				}
+				labelStart = i + 1;
+				labelIndex++;
+				hyphens = false;
+				digits = false;
+				nonAscii = false;
+			} else if (c == '-') {
+				hyphens = true;
+			} else if (c >= '0' && c <= '9') {
+				digits = true;
+			} else if (isAsciiLetterOrDigit(c)) {
+				// letter, nothing to remember
+			} else if (internationalDomains && c > 0x7F && isLetterOrDigit(value, i)) {
+				nonAscii = true;
+				anyNonAscii = true;
+				if (Character.isHighSurrogate(c)) {
+					i++;
+				}
+			} else {
+				return false;
+			}
+		}
+		return !anyNonAscii || isAsciiDomainValid(value.subSequence(domainStart, length).toString());
+	}
+
+	private static boolean isAsciiLetterOrDigit(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+	}
+
+	private static boolean isLetterOrDigit(CharSequence value, int index) {
+		char c = value.charAt(index);
+		if (Character.isHighSurrogate(c) && index + 1 < value.length()
+				&& Character.isLowSurrogate(value.charAt(index + 1))) {
+			return Character.isLetterOrDigit(Character.toCodePoint(c, value.charAt(index + 1)));
+		}
+		return !Character.isSurrogate(c) && Character.isLetterOrDigit(c);
+	}
+
+	private static boolean isPunycode(CharSequence value, int from, int to) {
+		if (to - from < 5) {
+			return false;
+		}
+		for (int i = 0; i < 4; i++) {
+			if (Character.toLowerCase(value.charAt(from + i)) != "xn--".charAt(i)) {
+				return false;
+			}
+		}
+		for (int i = from + 4; i < to; i++) {
+			char c = value.charAt(i);
+			if (c > 0x7F || !(isAsciiLetterOrDigit(c) || c == '-')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks length limits of internationalized domain converted to ASCII
+	 */
+	private static boolean isAsciiDomainValid(String domain) {
+		String asciiDomain;
+		try {
+			asciiDomain = IDN.toASCII(domain);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		if (asciiDomain.length() > MAX_DOMAIN_LENGTH) {
+			return false;
+		}
+		int labelStart = 0;
+		for (int i = 0; i <= asciiDomain.length(); i++) {
+			if (i == asciiDomain.length() || asciiDomain.charAt(i) == '.') {
+				if (i - labelStart > MAX_LABEL_LENGTH) {
+					return false;
+				}
+				labelStart = i + 1;
+			}
+		}
+		return true;
+	}
+
+}
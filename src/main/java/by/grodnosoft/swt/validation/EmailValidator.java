@@ -1,15 +1,102 @@
 package by.grodnosoft.swt.validation;
 
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
 /**
- * Validates if field value is a valid email address. Validation is based on regular expression matching.
+ * Validates if field value is a valid email address.
+ * <p>
+ * By default addresses are checked by a hand-coded scanner in linear time, which also limits lengths
+ * of address parts as RFC 5321 does and could accept internationalized domains
+ * (see {@link #setInternationalDomains(boolean)}). Validator created with an {@link RegexValidator.Engine}
+ * matches addresses against regular expression instead, the way it was done before.
  * 
  * @author Denis Dudnik <deniska.dudnik@gmail.com>
  *
  */
 public class EmailValidator extends RegexValidator {
 
+	private static final String EMAIL_REGEX =
+			"^[_A-Za-z0-9-\\+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
+
+	private final boolean scanned;
+	private boolean internationalDomains;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
+
 	public EmailValidator() {
-		super("^[_A-Za-z0-9-\\+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$");
+		super(EMAIL_REGEX);
+		this.scanned = true;
+	}
+
+	/**
+	 * @param engine engine to match input values with, see {@link RegexValidator.Engine}
+	 */
+	public EmailValidator(Engine engine) {
+		super(EMAIL_REGEX, engine);
+		this.scanned = false;
+	}
+
+	/**
+	 * @return <code>true</code> if addresses are checked by scanner rather than regular expression
+	 */
+	public boolean isScanned() {
+		return scanned;
+	}
+
+	/**
+	 * Accept domains with non-ASCII letters, hyphens inside every label and punycode top level domains.
+	 * Off by default, works only for validator checking addresses by scanner.
+	 */
+	public void setInternationalDomains(boolean internationalDomains) {
+		this.internationalDomains = internationalDomains;
+	}
+
+	public boolean isInternationalDomains() {
+		return internationalDomains;
+	}
+
+	@Override
+	public ValidationResult validate(String valueToValidate) {
+		return scanned ? validateChars(valueToValidate) : super.validate(valueToValidate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		return scanned ? validateChars(CharRange.of(value, start, end)) : super.validate(value, start, end);
+	}
+
+	private ValidationResult validateChars(CharSequence valueToValidate) {
+		if (valueToValidate == null || valueToValidate.length() == 0
+				|| EmailScanner.isValid(valueToValidate, internationalDomains)) {
+			return okResult;
+		}
+		// chars could change after validation, so message is formatted from their copy
+		final String value = valueToValidate.toString();
+		return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				return getErrorMessage(value);
+			}
+		}, this);
+	}
+
+	/**
+	 * @return this validator if addresses are checked by scanner, it does not keep any state of fields,
+	 *  so {@link #setIncremental(boolean)} has no effect on it
+	 */
+	@Override
+	public IValidator createFieldValidator() {
+		return scanned ? this : super.createFieldValidator();
+	}
+
+	@Override
+	public int getCost() {
+		return scanned ? DEFAULT_COST : super.getCost();
 	}
 
 	@Override
@@ -0,0 +1,230 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Validates every line of a multi-line text, i.e. records of CSV or configuration file edited in a StyledText,
+ * with the same validator. On every change only lines touched by the change are validated again,
+ * statuses of the rest of lines are kept in an index which is shifted when lines are inserted or removed.
+ * <p>
+ * Lines are validated without their delimiters. Validation is set up by
+ * {@link ValidationToolkit#setupLineValidation(org.eclipse.swt.custom.StyledText, IValidator, LineValidationCallback)}
+ * and runs on UI thread whenever content of the StyledText changes.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class LineValidation {
+
+	private static final ValidationStatus[] STATUSES = ValidationStatus.values();
+
+	/**
+	 * Callback notified with results of lines validated after a change
+	 */
+	public interface LineValidationCallback {
+		void linesValidated(LineChange change);
+	}
+
+	/**
+	 * Lines replaced by a single change of content and results of lines which replaced them
+	 */
+	public static class LineChange {
+
+		private final int startLine;
+		private final int replacedLineCount;
+		private final List<ValidationResult> results;
+		private final ValidationStatus status;
+
+		LineChange(int startLine, int replacedLineCount, ValidationResult[] results, ValidationStatus status) {
+			this.startLine = startLine;
+			this.replacedLineCount = replacedLineCount;
+			this.results = Collections.unmodifiableList(Arrays.asList(results));
+			this.status = status;
+		}
+
+		/**
+		 * @return index of the first changed line
+		 */
+		public int getStartLine() {
+			return startLine;
+		}
+
+		/**
+		 * @return number of lines starting from {@link #getStartLine()} which were there before the change,
+		 *  lines after them are shifted by <code>getResults().size() - getReplacedLineCount()</code>
+		 */
+		public int getReplacedLineCount() {
+			return replacedLineCount;
+		}
+
+		/**
+		 * @return results of lines starting from {@link #getStartLine()} which are there after the change
+		 */
+		public List<ValidationResult> getResults() {
+			return results;
+		}
+
+		/**
+		 * @return the worst status of all lines after the change
+		 */
+		public ValidationStatus getStatus() {
+			return status;
+		}
+	}
+
+	private final StyledTextContent content;
+	private final IValidator validator;
+	private final LineValidationCallback callback;
+	private final TextChangeListener listener = new TextChangeListener() {
+		@Override
+		public void textChanging(TextChangingEvent event) {
+			// lines are counted by delimiters replaced and inserted, so a change within one line touches one line
+			pendingStartLine = content.getLineAtOffset(event.start);
+			pendingReplacedLineCount = event.replaceLineCount + 1;
+			pendingNewLineCount = event.newLineCount + 1;
+		}
+
+		@Override
+		public void textChanged(TextChangedEvent event) {
+			if (pendingStartLine >= 0) {
+				int startLine = pendingStartLine;
+				pendingStartLine = -1;
+				linesChanged(startLine, pendingReplacedLineCount, pendingNewLineCount);
+			}
+		}
+
+		@Override
+		public void textSet(TextChangedEvent event) {
+			pendingStartLine = -1;
+			linesChanged(0, lineCount, content.getLineCount());
+		}
+	};
+
+	/** ordinals of line statuses */
+	private byte[] statuses = new byte[16];
+	private int lineCount;
+	private final int[] statusCounts = new int[STATUSES.length];
+	private int pendingStartLine = -1;
+	private int pendingReplacedLineCount;
+	private int pendingNewLineCount;
+
+	/**
+	 * Validates every line of given content right away and then every line changed.
+	 *
+	 * @param content to validate, not <code>null</code>
+	 * @param validator validates every line, not <code>null</code>
+	 * @param callback notified after every change, could be <code>null</code>
+	 * @throws IllegalArgumentException if either content or validator are <code>null</code>
+	 */
+	public LineValidation(StyledTextContent content, IValidator validator, LineValidationCallback callback) {
+		if (content == null) {
+			throw new IllegalArgumentException("Content can't be null!");
+		}
+		if (validator == null) {
+			throw new IllegalArgumentException("Validator can't be null!");
+		}
+		this.content = content;
+		this.validator = validator;
+		this.callback = callback;
+		validateLines(0, 0, content.getLineCount());
+		content.addTextChangeListener(listener);
+	}
+
+	/**
+	 * Stops validating content on changes
+	 */
+	public void dispose() {
+		content.removeTextChangeListener(listener);
+	}
+
+	public int getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return status of given line as of its last validation
+	 * @throws IndexOutOfBoundsException if there is no such line
+	 */
+	public ValidationStatus getLineStatus(int line) {
+		if (line < 0 || line >= lineCount) {
+			throw new IndexOutOfBoundsException(String.valueOf(line));
+		}
+		return STATUSES[statuses[line]];
+	}
+
+	/**
+	 * @return number of lines of given status
+	 */
+	public int getLineCount(ValidationStatus status) {
+		return statusCounts[status.ordinal()];
+	}
+
+	/**
+	 * @return the worst status of all lines
+	 */
+	public ValidationStatus getStatus() {
+		for (int i = STATUSES.length - 1; i > 0; i--) {
+			if (statusCounts[i] > 0) {
+				return STATUSES[i];
+			}
+		}
+		return ValidationStatus.OK;
+	}
+
+	/**
+	 * @return index of the first line of given status at or after given line, -1 if there is none
+	 */
+	public int findLine(ValidationStatus status, int fromLine) {
+		byte ordinal = (byte) status.ordinal();
+		for (int line = Math.max(fromLine, 0); line < lineCount; line++) {
+			if (statuses[line] == ordinal) {
+				return line;
+			}
+		}
+		return -1;
+	}
+
+	private void linesChanged(int startLine, int replacedLineCount, int newLineCount) {
+		ValidationResult[] results = validateLines(startLine, replacedLineCount, newLineCount);
+		if (callback != null) {
+			callback.linesValidated(new LineChange(startLine, replacedLineCount, results, getStatus()));
+		}
+	}
+
+	/**
+	 * Replaces statuses of given lines with statuses of new lines validated at their place
+	 */
+	private ValidationResult[] validateLines(int startLine, int replacedLineCount, int newLineCount) {
+		for (int line = startLine; line < startLine + replacedLineCount; line++) {
+			statusCounts[statuses[line]]--;
+		}
+		int newTotal = lineCount - replacedLineCount + newLineCount;
+		if (newTotal > statuses.length) {
+			statuses = Arrays.copyOf(statuses, Math.max(newTotal, statuses.length * 2));
+		}
+		System.arraycopy(statuses, startLine + replacedLineCount, statuses, startLine + newLineCount,
+				lineCount - startLine - replacedLineCount);
+		lineCount = newTotal;
+
+		ValidationResult[] results = new ValidationResult[newLineCount];
+		for (int i = 0; i < newLineCount; i++) {
+			results[i] = ValidationMetrics.validate(validator, content.getLine(startLine + i));
+			byte ordinal = (byte) results[i].getStatus().ordinal();
+			statuses[startLine + i] = ordinal;
+			statusCounts[ordinal]++;
+		}
+		return results;
+	}
+
+}
@@ -0,0 +1,73 @@
+package by.grodnosoft.swt.validation;
+
+/**
+ * Validates if field value is a {@link Long} number between min and max values.
+ * Parsed value is compared as a primitive, no {@link Number} objects are created.
+ * 
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class LongRangeValidator extends NumericValidator {
+
+	private final long min;
+	private final boolean minInclusive;
+	private final long max;
+	private final boolean maxInclusive;
+
+	/**
+	 * Creates validator of numbers between min and max values, both inclusive.
+	 * 
+	 * @throws IllegalArgumentException if min is bigger than max
+	 */
+	public LongRangeValidator(long min, long max) {
+		this(min, true, max, true);
+	}
+
+	/**
+	 * @throws IllegalArgumentException if min is bigger than max
+	 */
+	public LongRangeValidator(long min, boolean minInclusive, long max, boolean maxInclusive) {
+		if (min > max) {
+			throw new IllegalArgumentException(
+					String.format("Min value %d should not be bigger than max value %d!", min, max));
+		}
+		this.min = min;
+		this.minInclusive = minInclusive;
+		this.max = max;
+		this.maxInclusive = maxInclusive;
+		super.setNumberType(Long.class);
+	}
+
+	/**
+	 * Set type of expected number, one of {@link Long}, {@link Integer}, {@link Short} or {@link Byte}.
+	 * Default number type is {@link Long}.
+	 * 
+	 * @throws IllegalArgumentException if numberType is not an integral type fitting into long
+	 */
+	@Override
+	public void setNumberType(Class<? extends Number> numberType) {
+		if (!Long.class.equals(numberType) && !Integer.class.equals(numberType)
+				&& !Short.class.equals(numberType) && !Byte.class.equals(numberType)) {
+			throw new IllegalArgumentException(
+					String.format("NumberType %s is not supported!", numberType));
+		}
+		super.setNumberType(numberType);
+	}
+
+	@Override
+	protected boolean isRangeChecked() {
+		return true;
+	}
+
+	@Override
+	protected boolean isInRange(long value) {
+		return (minInclusive ? value >= min : value > min)
+				&& (maxInclusive ? value <= max : value < max);
+	}
+
+	@Override
+	protected String getOutOfRangeMessage(String valueToValidate) {
+		return String.format("Value %s should be between %d and %d!", valueToValidate, min, max);
+	}
+
+}
@@ -0,0 +1,145 @@
+package by.grodnosoft.swt.validation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Read-only set of strings stored in a file created by {@link MembershipIndexBuilder} and memory-mapped,
+ * so that values are paged in by operating system on demand instead of living on heap.
+ * <p>
+ * File layout (big-endian): header of {@link #HEADER_SIZE} bytes (magic, version, number of values,
+ * number of Bloom filter hash functions, number of Bloom filter words, length of values data),
+ * Bloom filter words, offsets of values in data (one more than values), and UTF-8 bytes of values
+ * sorted as unsigned bytes, which is the same as sorting by code points.
+ * Whole file should not be bigger than 2GB.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class MembershipIndex {
+
+	static final int MAGIC = 0x53564958; // "SVIX"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 24;
+	static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final MappedByteBuffer buffer;
+	private final int valueCount;
+	private final int hashCount;
+	private final int bloomBits;
+	private final int bloomStart;
+	private final int offsetsStart;
+	private final int dataStart;
+
+	private MembershipIndex(MappedByteBuffer buffer, int valueCount, int hashCount, int bloomWordCount) {
+		this.buffer = buffer;
+		this.valueCount = valueCount;
+		this.hashCount = hashCount;
+		this.bloomBits = bloomWordCount * 64;
+		this.bloomStart = HEADER_SIZE;
+		this.offsetsStart = bloomStart + bloomWordCount * 8;
+		this.dataStart = offsetsStart + (valueCount + 1) * 4;
+	}
+
+	/**
+	 * @throws IOException if file could not be read or it's not an index file
+	 */
+	static MembershipIndex open(File indexFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(indexFile, "r");
+		try {
+			long length = file.length();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				throw new IOException(String.format("%s is not a membership index file", indexFile));
+			}
+			// mapping stays valid after channel is closed
+			MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, length);
+			int valueCount = buffer.getInt(8);
+			int hashCount = buffer.getInt(12);
+			int bloomWordCount = buffer.getInt(16);
+			int dataLength = buffer.getInt(20);
+			if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || valueCount < 0 || hashCount <= 0
+					|| bloomWordCount <= 0 || dataLength < 0
+					|| HEADER_SIZE + bloomWordCount * 8L + (valueCount + 1L) * 4 + dataLength != length) {
+				throw new IOException(String.format("%s is not a membership index file", indexFile));
+			}
+			return new MembershipIndex(buffer, valueCount, hashCount, bloomWordCount);
+		} finally {
+			file.close();
+		}
+	}
+
+	int size() {
+		return valueCount;
+	}
+
+	/**
+	 * @return <code>false</code> if the value is not in the index for sure, <code>true</code> if it's likely to be
+	 */
+	boolean mightContain(byte[] value) {
+		long hash = hash(value);
+		int hash1 = (int) hash;
+		int hash2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bloomBits;
+			if ((buffer.getLong(bloomStart + (bit >>> 6) * 8) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean contains(byte[] value) {
+		int low = 0;
+		int high = valueCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = compareTo(middle, value);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compares value stored at given position with given one as unsigned bytes
+	 */
+	private int compareTo(int position, byte[] value) {
+		int from = dataStart + buffer.getInt(offsetsStart + position * 4);
+		int to = dataStart + buffer.getInt(offsetsStart + (position + 1) * 4);
+		int length = Math.min(to - from, value.length);
+		for (int i = 0; i < length; i++) {
+			int difference = (buffer.get(from + i) & 0xFF) - (value[i] & 0xFF);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return (to - from) - value.length;
+	}
+
+	/**
+	 * 64-bit FNV-1a hash with final mixing, its halves are used as two independent hashes
+	 */
+	static long hash(byte[] value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value) {
+			hash ^= b & 0xFF;
+			hash *= 0x100000001b3L;
+		}
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
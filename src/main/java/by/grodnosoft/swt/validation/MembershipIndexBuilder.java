@@ -0,0 +1,158 @@
+package by.grodnosoft.swt.validation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Creates index files of allowed values for {@link MembershipValidator}.
+ * Could be run from command line to create an index from a text file with one value per line:
+ * <pre>
+ * java -cp by.grodnosoft.swt.validation.jar by.grodnosoft.swt.validation.MembershipIndexBuilder postcodes.txt postcodes.idx
+ * </pre>
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class MembershipIndexBuilder {
+
+	public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+	private static final Comparator<byte[]> UNSIGNED_BYTES = new Comparator<byte[]>() {
+		@Override
+		public int compare(byte[] first, byte[] second) {
+			int length = Math.min(first.length, second.length);
+			for (int i = 0; i < length; i++) {
+				int difference = (first[i] & 0xFF) - (second[i] & 0xFF);
+				if (difference != 0) {
+					return difference;
+				}
+			}
+			return first.length - second.length;
+		}
+	};
+
+	private MembershipIndexBuilder() {
+	}
+
+	/**
+	 * Usage: <code>MembershipIndexBuilder &lt;values file&gt; &lt;index file&gt; [charset]</code>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2 || args.length > 3) {
+			System.err.println("Usage: MembershipIndexBuilder <values file> <index file> [charset]");
+			System.exit(1);
+		}
+		Charset charset = args.length == 3 ? Charset.forName(args[2]) : MembershipIndex.UTF_8;
+		int count = build(new File(args[0]), charset, new File(args[1]));
+		System.out.println(String.format("%d values written to %s", count, args[1]));
+	}
+
+	/**
+	 * Creates index of values from a text file with one value per line. Values are trimmed,
+	 * blank lines and duplicates are skipped.
+	 *
+	 * @return number of indexed values
+	 * @throws IOException if values could not be read or index could not be written
+	 */
+	public static int build(File valuesFile, Charset charset, File indexFile) throws IOException {
+		List<String> values = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(valuesFile), charset));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (!line.isEmpty()) {
+					values.add(line);
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return build(values, indexFile, DEFAULT_FALSE_POSITIVE_RATE);
+	}
+
+	/**
+	 * Creates index of given values, duplicates are skipped.
+	 *
+	 * @param falsePositiveRate share of values not in the index which pass Bloom filter, between 0 and 1 exclusive
+	 * @return number of indexed values
+	 * @throws IOException if index could not be written
+	 * @throws IllegalArgumentException if falsePositiveRate is out of range or index would be bigger than 2GB
+	 */
+	public static int build(Collection<String> values, File indexFile, double falsePositiveRate) throws IOException {
+		if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+			throw new IllegalArgumentException("False positive rate should be between 0 and 1!");
+		}
+		byte[][] encoded = new byte[values.size()][];
+		int index = 0;
+		for (String value : values) {
+			encoded[index++] = value.getBytes(MembershipIndex.UTF_8);
+		}
+		Arrays.sort(encoded, UNSIGNED_BYTES);
+		int count = 0;
+		long dataLength = 0;
+		for (int i = 0; i < encoded.length; i++) {
+			if (count == 0 || UNSIGNED_BYTES.compare(encoded[count - 1], encoded[i]) != 0) {
+				encoded[count++] = encoded[i];
+				dataLength += encoded[i].length;
+			}
+		}
+
+		// optimal Bloom filter for given number of values and false positive rate
+		long bits = (long) Math.ceil(-Math.max(count, 1) * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int bloomWordCount = (int) Math.max(1, Math.min((bits + 63) / 64, Integer.MAX_VALUE / 64));
+		int hashCount = (int) Math.max(1, Math.round((double) bloomWordCount * 64 / Math.max(count, 1) * Math.log(2)));
+		if (MembershipIndex.HEADER_SIZE + bloomWordCount * 8L + (count + 1L) * 4 + dataLength > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Index of given values would be bigger than 2GB!");
+		}
+		int bloomBits = bloomWordCount * 64;
+		long[] bloom = new long[bloomWordCount];
+		for (int i = 0; i < count; i++) {
+			long hash = MembershipIndex.hash(encoded[i]);
+			int hash1 = (int) hash;
+			int hash2 = (int) (hash >>> 32);
+			for (int j = 0; j < hashCount; j++) {
+				int bit = ((hash1 + j * hash2) & Integer.MAX_VALUE) % bloomBits;
+				bloom[bit >>> 6] |= 1L << bit;
+			}
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 1 << 16));
+		try {
+			out.writeInt(MembershipIndex.MAGIC);
+			out.writeInt(MembershipIndex.VERSION);
+			out.writeInt(count);
+			out.writeInt(hashCount);
+			out.writeInt(bloomWordCount);
+			out.writeInt((int) dataLength);
+			for (long word : bloom) {
+				out.writeLong(word);
+			}
+			int offset = 0;
+			out.writeInt(offset);
+			for (int i = 0; i < count; i++) {
+				offset += encoded[i].length;
+				out.writeInt(offset);
+			}
+			for (int i = 0; i < count; i++) {
+				out.write(encoded[i]);
+			}
+		} finally {
+			out.close();
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,73 @@
+package by.grodnosoft.swt.validation;
+
+import java.io.File;
+import java.io.IOException;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Validates if field value is one of allowed values, i.e. postal codes or part numbers, which are too
+ * many to keep on heap. Allowed values are read from an index file created by {@link MembershipIndexBuilder}
+ * and memory-mapped. Most values which are not allowed are rejected by Bloom filter without searching the index.
+ * <p>
+ * Values are compared exactly as they are, empty values are valid.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class MembershipValidator implements ICostAwareValidator {
+
+	private final MembershipIndex index;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
+
+	/**
+	 * @param indexFile created by {@link MembershipIndexBuilder}
+	 * @throws IOException if file could not be read or it's not an index file
+	 */
+	public MembershipValidator(File indexFile) throws IOException {
+		if (indexFile == null) {
+			throw new IllegalArgumentException("Index file can't be null!");
+		}
+		this.index = MembershipIndex.open(indexFile);
+	}
+
+	/**
+	 * @return number of allowed values
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(final String valueToValidate) {
+		if (valueToValidate == null || valueToValidate.isEmpty()) {
+			return okResult;
+		}
+		byte[] value = valueToValidate.getBytes(MembershipIndex.UTF_8);
+		if (index.mightContain(value) && index.contains(value)) {
+			return okResult;
+		}
+		return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				return getErrorMessage(valueToValidate);
+			}
+		}, this);
+	}
+
+	@Override
+	public int getCost() {
+		return HIGH_COST;
+	}
+
+	protected String getErrorMessage(String valueToValidate) {
+		return String.format("Value %s is not allowed!", valueToValidate);
+	}
+
+}
@@ -0,0 +1,64 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Accumulates invocations of an instrumented validator or context, could be updated from many threads.
+ * Latencies are counted in power of two buckets of nanoseconds, see {@link MetricsSnapshot#getBucketUpperBound(int)}.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class MetricsRecorder {
+
+	static final int BUCKET_COUNT = 40;
+
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong warningCount = new AtomicLong();
+	private final AtomicLong errorCount = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	void record(ValidationStatus status, long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		count.incrementAndGet();
+		if (status == ValidationStatus.ERROR) {
+			errorCount.incrementAndGet();
+		} else if (status == ValidationStatus.WARNING) {
+			warningCount.incrementAndGet();
+		}
+		totalNanos.addAndGet(nanos);
+		long max = maxNanos.get();
+		while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+		buckets.incrementAndGet(bucketOf(nanos));
+	}
+
+	MetricsSnapshot snapshot(String name) {
+		long[] histogram = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			histogram[i] = buckets.get(i);
+		}
+		return new MetricsSnapshot(name, count.get(), warningCount.get(), errorCount.get(),
+				totalNanos.get(), maxNanos.get(), histogram);
+	}
+
+	/**
+	 * @return index of the smallest bucket which upper bound (<code>2^index</code>) is not less than given nanos
+	 */
+	static int bucketOf(long nanos) {
+		if (nanos <= 1) {
+			return 0;
+		}
+		int bucket = 64 - Long.numberOfLeadingZeros(nanos - 1);
+		return Math.min(bucket, BUCKET_COUNT - 1);
+	}
+
+}
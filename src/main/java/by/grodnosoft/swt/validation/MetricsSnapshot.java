@@ -0,0 +1,129 @@
+package by.grodnosoft.swt.validation;
+
+/**
+ * Immutable copy of metrics of a single validator or {@link ValidationToolkit.ValidationContext},
+ * see {@link ValidationMetrics}. Latencies are in nanoseconds, percentiles are upper bounds
+ * of histogram buckets so they are precise up to a factor of two.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class MetricsSnapshot {
+
+	private final String name;
+	private final long count;
+	private final long warningCount;
+	private final long errorCount;
+	private final long totalNanos;
+	private final long maxNanos;
+	private final long[] histogram;
+
+	MetricsSnapshot(String name, long count, long warningCount, long errorCount,
+			long totalNanos, long maxNanos, long[] histogram) {
+		this.name = name;
+		this.count = count;
+		this.warningCount = warningCount;
+		this.errorCount = errorCount;
+		this.totalNanos = totalNanos;
+		this.maxNanos = maxNanos;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * @return name of validator or context, see {@link ValidationMetrics}
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getWarningCount() {
+		return warningCount;
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return share of invocations with {@link ValidationToolkit.ValidationResult.ValidationStatus#ERROR} status
+	 */
+	public double getErrorRate() {
+		return count == 0 ? 0 : (double) errorCount / count;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	public long getMeanNanos() {
+		return count == 0 ? 0 : totalNanos / count;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	public long getP50Nanos() {
+		return getPercentileNanos(0.5);
+	}
+
+	public long getP90Nanos() {
+		return getPercentileNanos(0.9);
+	}
+
+	public long getP99Nanos() {
+		return getPercentileNanos(0.99);
+	}
+
+	/**
+	 * @param percentile between 0 and 1
+	 * @return upper bound of latency of given share of invocations, <code>0</code> if there were none
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (percentile < 0 || percentile > 1) {
+			throw new IllegalArgumentException("Percentile should be between 0 and 1!");
+		}
+		long total = 0;
+		for (long bucketCount : histogram) {
+			total += bucketCount;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile * total));
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			seen += histogram[i];
+			if (seen >= rank) {
+				return Math.min(getBucketUpperBound(i), maxNanos);
+			}
+		}
+		return maxNanos;
+	}
+
+	/**
+	 * @return number of invocations in every bucket, see {@link #getBucketUpperBound(int)}
+	 */
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * @return latency in nanoseconds which invocations counted in given histogram bucket do not exceed,
+	 *  except for the last bucket which counts all longer invocations too
+	 */
+	public static long getBucketUpperBound(int bucket) {
+		return 1L << bucket;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d, errors=%d, warnings=%d, mean=%dns, p50=%dns, p99=%dns, max=%dns",
+				name, count, errorCount, warningCount, getMeanNanos(), getP50Nanos(), getP99Nanos(), maxNanos);
+	}
+
+}
@@ -1,6 +1,7 @@
 package by.grodnosoft.swt.validation;
 
-import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
 
@@ -10,7 +11,11 @@ import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.Validatio
  * @author Denis Dudnik <deniska.dudnik@gmail.com>
  *
  */
-public class NonEmptyValidator implements IValidator {
+public class NonEmptyValidator implements ICharSequenceValidator, ICostAwareValidator {
+
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
+	private final ValidationResult errorResult = new ValidationResult(
+			ValidationStatus.ERROR, "Value should be non-empty!", this);
 
 	/**
 	 * {@inheritDoc}
@@ -18,10 +23,22 @@ public class NonEmptyValidator implements IValidator {
 	@Override
 	public ValidationResult validate(String valueToValidate) {
 		if (valueToValidate == null || valueToValidate.isEmpty()) {
-			return new ValidationResult(
-					ValidationStatus.ERROR, "Value should be non-empty!", this);
+			return errorResult;
 		}
-		return new ValidationResult(ValidationStatus.OK, this);
+		return okResult;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		return CharRange.of(value, start, end).length() == 0 ? errorResult : okResult;
+	}
+
+	@Override
+	public int getCost() {
+		return LOW_COST;
 	}
 
 }
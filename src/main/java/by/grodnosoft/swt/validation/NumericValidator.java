@@ -1,23 +1,63 @@
 package by.grodnosoft.swt.validation;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.regex.Pattern;
 
-import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
 
 
 /**
- * Validates if field value is a {@link Number}
- * TODO: this validator could be improved by checking if numeric value is between max and min values.
+ * Validates if field value is a {@link Number}, see {@link IntegerRangeValidator}, {@link LongRangeValidator}
+ * and {@link DoubleRangeValidator} if it also should be between min and max values.
+ * <p>
+ * Value is checked by a single pass scanner without creating any objects, whitespaces are ignored,
+ * an optional sign is accepted in front of the number. Integral numbers are checked to fit into
+ * given number type using given radix. Floating point numbers follow {@link Double#valueOf(String)}
+ * syntax, values out of range are treated as infinities just like {@link Double#parseDouble(String)} does.
+ * <p>
+ * If commons-lang is found in classpath, values rejected by scanner are additionally checked
+ * with <code>NumberUtils.createNumber()</code>, so its number syntax (i.e. type suffixes) is accepted as well.
  * 
  * @author Denis Dudnik <deniska.dudnik@gmail.com>
  *
  */
-public class NumericValidator implements IValidator {
+public class NumericValidator implements ICharSequenceValidator, ICostAwareValidator {
 	
+	private static final Pattern WHITESPACES = Pattern.compile("\\s");
+	private static final Pattern PLUS_SIGN = Pattern.compile("\\+");
+
+	/** <code>NumberUtils.createNumber()</code> or <code>null</code> if there is no commons-lang in classpath */
+	private static final Method CREATE_NUMBER_METHOD = findCreateNumberMethod();
+
+	private static final int BYTE = 0;
+	private static final int SHORT = 1;
+	private static final int INTEGER = 2;
+	private static final int LONG = 3;
+	private static final int FLOAT = 4;
+	private static final int DOUBLE = 5;
+	private static final int OTHER = -1;
+
+	private static final int NOT_A_NUMBER = 0;
+	private static final int NUMBER = 1;
+	private static final int OUT_OF_RANGE = 2;
+
+	private static final int MAX_EXACT_DIGITS = 18;
+	private static final int MAX_EXPONENT = 100000;
+	private static final long EXACT_MANTISSA_LIMIT = 1L << 53;
+	private static final double[] EXACT_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+		1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
 	private Class<? extends Number> numberType = Double.class;
+	private int numberKind = DOUBLE;
 	private int radix = 10;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
 	
 	/**
 	 * Set type of expected number, one of {@link Number} subclasses.
@@ -31,6 +71,7 @@ public class NumericValidator implements IValidator {
 			throw new IllegalArgumentException("NumberType could not be null!");
 		}
 		this.numberType = numberType;
+		this.numberKind = getNumberKind(numberType);
 	}
 	
 	/**
@@ -53,60 +94,370 @@ public class NumericValidator implements IValidator {
 	 */
 	@Override
 	public ValidationResult validate(String valueToValidate) {
-		if (valueToValidate != null && !valueToValidate.isEmpty()) {
-			try {
-				String modifiedValue = valueToValidate.trim().replaceAll("\\s", "").replaceFirst("\\+", "");
-				Number num = createNumberFromString(modifiedValue);
-				if (!numberType.equals(num.getClass())) {
-					throw new NumberFormatException();
-				}
-			} catch (NumberFormatException e) {
-				return new ValidationResult(
-						ValidationStatus.ERROR, 
-						String.format("Value %s should be a %s number!", valueToValidate, getNumberTypeName()), this);
+		return validateChars(valueToValidate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		return validateChars(CharRange.of(value, start, end));
+	}
+
+	private ValidationResult validateChars(CharSequence valueToValidate) {
+		if (valueToValidate != null && valueToValidate.length() > 0) {
+			int checkResult = check(valueToValidate);
+			if (checkResult == NUMBER) {
+				return okResult;
+			}
+			// chars could change after validation, so message is formatted from their copy
+			final String value = valueToValidate.toString();
+			if (checkResult == NOT_A_NUMBER) {
+				return ValidationResult.lazy(
+						ValidationStatus.ERROR,
+						ValidationResult.lazyFormat("Value %s should be a %s number!", value, getNumberTypeName()), this);
+			} else if (checkResult == OUT_OF_RANGE) {
+				return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+					@Override
+					public String getMessage() {
+						return getOutOfRangeMessage(value);
+					}
+				}, this);
 			}
 		}
-		return new ValidationResult(ValidationStatus.OK, this);
+		return okResult;
 	}
-	
+
+	@Override
+	public int getCost() {
+		return DEFAULT_COST;
+	}
+
+	/**
+	 * Subclasses restricting range of valid numbers should return <code>true</code>
+	 * so parsed values are passed to {@link #isInRange(long)} or {@link #isInRange(double)}.
+	 */
+	protected boolean isRangeChecked() {
+		return false;
+	}
+
+	/**
+	 * Checks parsed value of integral number types, called only if {@link #isRangeChecked()}.
+	 */
+	protected boolean isInRange(long value) {
+		return true;
+	}
+
+	/**
+	 * Checks parsed value of floating point number types, called only if {@link #isRangeChecked()}.
+	 */
+	protected boolean isInRange(double value) {
+		return true;
+	}
+
+	protected String getOutOfRangeMessage(String valueToValidate) {
+		return String.format("Value %s is out of range!", valueToValidate);
+	}
+
 	private String getNumberTypeName() {
-		String className = numberType.getName();
-		return className.substring(className.lastIndexOf("."));
+		return numberType.getSimpleName();
 	}
 
-	private Number createNumberFromString(String valueToValidate) {
+	private int check(CharSequence valueToValidate) {
+		int checkResult;
+		switch (numberKind) {
+			case BYTE:
+				checkResult = checkIntegral(valueToValidate, Byte.MIN_VALUE, Byte.MAX_VALUE);
+				break;
+			case SHORT:
+				checkResult = checkIntegral(valueToValidate, Short.MIN_VALUE, Short.MAX_VALUE);
+				break;
+			case INTEGER:
+				checkResult = checkIntegral(valueToValidate, Integer.MIN_VALUE, Integer.MAX_VALUE);
+				break;
+			case LONG:
+				checkResult = checkIntegral(valueToValidate, Long.MIN_VALUE, Long.MAX_VALUE);
+				break;
+			case FLOAT:
+			case DOUBLE:
+				checkResult = checkFloating(valueToValidate);
+				break;
+			default:
+				if (CREATE_NUMBER_METHOD == null) {
+					throw new IllegalArgumentException(
+							String.format("Unknown numberType %s!", getNumberTypeName()));
+				}
+				checkResult = NOT_A_NUMBER;
+		}
+		if (checkResult == NOT_A_NUMBER && CREATE_NUMBER_METHOD != null) {
+			checkResult = checkCreatedByCommonsLang(valueToValidate);
+		}
+		return checkResult;
+	}
+
+	private int checkCreatedByCommonsLang(CharSequence valueToValidate) {
+		String modifiedValue = PLUS_SIGN.matcher(
+				WHITESPACES.matcher(valueToValidate.toString().trim()).replaceAll("")).replaceFirst("");
+		Number num;
 		try {
-			Class<?> numberUtilsClass = Class.forName("org.apache.commons.lang.math.NumberUtils");
-			Method createNumberMethod = numberUtilsClass.getDeclaredMethod("createNumber", String.class);
-			
-			return (Number) createNumberMethod.invoke(null, valueToValidate);
-			
-		} catch (NumberFormatException e) {
-			throw e;
-		} catch (Exception e) {
-			// do nothing,
-			// probably no commons-lang was found in classpath, 
-			// proceed with our simple number guessing heuristics
+			num = (Number) CREATE_NUMBER_METHOD.invoke(null, modifiedValue);
+		} catch (InvocationTargetException e) {
+			// NumberFormatException was thrown, not a number
+			return NOT_A_NUMBER;
+		} catch (IllegalAccessException e) {
+			return NOT_A_NUMBER;
+		}
+		if (num == null || !numberType.equals(num.getClass())) {
+			return NOT_A_NUMBER;
 		}
-		
-		return parseNumber(valueToValidate);
+		if (isRangeChecked()) {
+			boolean inRange = numberKind == FLOAT || numberKind == DOUBLE
+					? isInRange(num.doubleValue()) : isInRange(num.longValue());
+			if (!inRange) {
+				return OUT_OF_RANGE;
+			}
+		}
+		return NUMBER;
 	}
-	
-	private Number parseNumber(String valueToValidate) {
-		if (Integer.class.equals(numberType)) {
-			return Integer.parseInt(valueToValidate, radix);
+
+	private int checkIntegral(CharSequence value, long min, long max) {
+		int length = value.length();
+		int i = skipWhitespaces(value, 0, length);
+		if (i == length) {
+			return NOT_A_NUMBER;
+		}
+		boolean negative = false;
+		char c = value.charAt(i);
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			i = skipWhitespaces(value, i + 1, length);
+		}
+		// accumulate negatively to fit Long.MIN_VALUE, the same way Long.parseLong() does
+		long limit = negative ? min : -max;
+		long limitBeforeMultiply = limit / radix;
+		long result = 0;
+		int digits = 0;
+		for (; i < length; i++) {
+			c = value.charAt(i);
+			if (isWhitespace(c)) {
+				continue;
+			}
+			int digit = Character.digit(c, radix);
+			if (digit < 0 || result < limitBeforeMultiply) {
+				return NOT_A_NUMBER;
+			}
+			result *= radix;
+			if (result < limit + digit) {
+				return NOT_A_NUMBER;
+			}
+			result -= digit;
+			digits++;
+		}
+		if (digits == 0) {
+			return NOT_A_NUMBER;
+		}
+		if (isRangeChecked() && !isInRange(negative ? result : -result)) {
+			return OUT_OF_RANGE;
+		}
+		return NUMBER;
+	}
+
+	/**
+	 * Checks if given value is a floating point number as accepted by {@link Double#valueOf(String)}.
+	 * Up to {@value #MAX_EXACT_DIGITS} significant decimal digits are accumulated on the way,
+	 * so range of most values could be checked without calling {@link Double#parseDouble(String)}.
+	 */
+	private int checkFloating(CharSequence value) {
+		int length = value.length();
+		int i = skipWhitespaces(value, 0, length);
+		boolean negative = false;
+		if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+			negative = value.charAt(i) == '-';
+			i = skipWhitespaces(value, i + 1, length);
+		}
+		if (i == length) {
+			return NOT_A_NUMBER;
+		}
+		char c = value.charAt(i);
+		if (c == 'N') {
+			return skipWord(value, i, length, "NaN") != length ? NOT_A_NUMBER
+					: checkFloatingRange(Double.NaN);
+		}
+		if (c == 'I') {
+			return skipWord(value, i, length, "Infinity") != length ? NOT_A_NUMBER
+					: checkFloatingRange(negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+		}
+		boolean hex = false;
+		if (c == '0') {
+			int next = skipWhitespaces(value, i + 1, length);
+			if (next < length && (value.charAt(next) == 'x' || value.charAt(next) == 'X')) {
+				hex = true;
+				i = skipWhitespaces(value, next + 1, length);
+			}
+		}
+		int radix = hex ? 16 : 10;
+		int digits = 0;
+		long mantissa = 0;
+		int mantissaDigits = 0;
+		int exponent = 0;
+		boolean exact = !hex;
+		while (i < length && isDigit(value.charAt(i), radix)) {
+			digits++;
+			if (mantissaDigits < MAX_EXACT_DIGITS) {
+				mantissa = mantissa * 10 + (value.charAt(i) - '0');
+				if (mantissa != 0) {
+					mantissaDigits++;
+				}
+			} else {
+				exponent++;
+				exact &= value.charAt(i) == '0';
+			}
+			i = skipWhitespaces(value, i + 1, length);
+		}
+		if (i < length && value.charAt(i) == '.') {
+			i = skipWhitespaces(value, i + 1, length);
+			while (i < length && isDigit(value.charAt(i), radix)) {
+				digits++;
+				if (mantissaDigits < MAX_EXACT_DIGITS) {
+					mantissa = mantissa * 10 + (value.charAt(i) - '0');
+					if (mantissa != 0) {
+						mantissaDigits++;
+					}
+					exponent--;
+				} else {
+					exact &= value.charAt(i) == '0';
+				}
+				i = skipWhitespaces(value, i + 1, length);
+			}
+		}
+		if (digits == 0) {
+			return NOT_A_NUMBER;
+		}
+		// binary exponent is mandatory for hexadecimal numbers
+		if (i < length && (hex ? value.charAt(i) == 'p' || value.charAt(i) == 'P'
+				: value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+			i = skipWhitespaces(value, i + 1, length);
+			boolean negativeExponent = false;
+			if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+				negativeExponent = value.charAt(i) == '-';
+				i = skipWhitespaces(value, i + 1, length);
+			}
+			int exponentDigits = 0;
+			int exponentValue = 0;
+			while (i < length && isDigit(value.charAt(i), 10)) {
+				exponentDigits++;
+				if (exponentValue < MAX_EXPONENT) {
+					exponentValue = exponentValue * 10 + (value.charAt(i) - '0');
+				}
+				i = skipWhitespaces(value, i + 1, length);
+			}
+			if (exponentDigits == 0) {
+				return NOT_A_NUMBER;
+			}
+			exponent += negativeExponent ? -exponentValue : exponentValue;
+		} else if (hex) {
+			return NOT_A_NUMBER;
+		}
+		if (i < length && "fFdD".indexOf(value.charAt(i)) >= 0) {
+			i = skipWhitespaces(value, i + 1, length);
+		}
+		if (i != length) {
+			return NOT_A_NUMBER;
+		}
+		if (!isRangeChecked()) {
+			return NUMBER;
+		}
+		double parsedValue;
+		if (exact && mantissa == 0) {
+			parsedValue = 0;
+		} else if (exact && mantissa < EXACT_MANTISSA_LIMIT && exponent >= -EXACT_POWERS_OF_TEN.length + 1
+				&& exponent < EXACT_POWERS_OF_TEN.length) {
+			// both mantissa and power of ten are exact doubles, so is the result of single operation
+			parsedValue = exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent]
+					: mantissa * EXACT_POWERS_OF_TEN[exponent];
+		} else {
+			parsedValue = Math.abs(Double.parseDouble(removeWhitespaces(value)));
+		}
+		return checkFloatingRange(negative ? -parsedValue : parsedValue);
+	}
+
+	private int checkFloatingRange(double value) {
+		if (!isRangeChecked()) {
+			return NUMBER;
+		}
+		if (numberKind == FLOAT) {
+			value = (float) value;
+		}
+		return isInRange(value) ? NUMBER : OUT_OF_RANGE;
+	}
+
+	private static boolean isDigit(char c, int radix) {
+		return (c >= '0' && c <= '9')
+				|| (radix == 16 && ((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')));
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c <= ' ';
+	}
+
+	private static String removeWhitespaces(CharSequence value) {
+		StringBuilder result = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			if (!isWhitespace(value.charAt(i))) {
+				result.append(value.charAt(i));
+			}
+		}
+		return result.toString();
+	}
+
+	private static int skipWhitespaces(CharSequence value, int from, int length) {
+		while (from < length && isWhitespace(value.charAt(from))) {
+			from++;
+		}
+		return from;
+	}
+
+	/**
+	 * @return position after given word or -1 if value does not contain this word at given position
+	 */
+	private static int skipWord(CharSequence value, int from, int length, String word) {
+		int i = from;
+		for (int w = 0; w < word.length(); w++) {
+			if (i == length || value.charAt(i) != word.charAt(w)) {
+				return -1;
+			}
+			i = skipWhitespaces(value, i + 1, length);
+		}
+		return i;
+	}
+
+	private static int getNumberKind(Class<? extends Number> numberType) {
+		if (Byte.class.equals(numberType)) {
+			return BYTE;
+		} else if (Short.class.equals(numberType)) {
+			return SHORT;
+		} else if (Integer.class.equals(numberType)) {
+			return INTEGER;
+		} else if (Long.class.equals(numberType)) {
+			return LONG;
 		} else if (Float.class.equals(numberType)) {
-			return Float.parseFloat(valueToValidate);
+			return FLOAT;
 		} else if (Double.class.equals(numberType)) {
-			return Double.parseDouble(valueToValidate);
-		} else if (Long.class.equals(numberType)) {
-			return Long.parseLong(valueToValidate, radix);
-		} else if (Short.class.equals(numberType)) {
-			return Short.parseShort(valueToValidate, radix);
-		} else if (Byte.class.equals(numberType)) {
-			return Byte.parseByte(valueToValidate, radix);
+			return DOUBLE;
+		}
+		return OTHER;
+	}
+
+	private static Method findCreateNumberMethod() {
+		try {
+			Class<?> numberUtilsClass = Class.forName("org.apache.commons.lang.math.NumberUtils");
+			return numberUtilsClass.getDeclaredMethod("createNumber", String.class);
+		} catch (Exception e) {
+			// do nothing,
+			// probably no commons-lang was found in classpath,
+			// our own scanner is used only
+			return null;
 		}
-		throw new IllegalArgumentException(
-				String.format("Unknown numberType %s!", getNumberTypeName()));
 	}
 }
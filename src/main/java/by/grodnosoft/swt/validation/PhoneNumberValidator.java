@@ -1,10 +1,16 @@
 package by.grodnosoft.swt.validation;
 
+import java.util.BitSet;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
 
 /**
  * Validates if field value is a valid at most 10-digit (country code not included) phone number,
  * which means it conforms to some of this phone number formats:
- * 
+ *
  * <ul>
  * 	<li>1234567890</li>
  * 	<li>123-456-7890</li>
@@ -14,18 +20,169 @@ package by.grodnosoft.swt.validation;
  * 	<li>+1 (123) 456-7890</li>
  * 	<li>1-123-456-7890</li>
  * </ul>
- * 
+ *
+ * By default phone numbers are parsed in one pass, which also allows to {@link #normalize(CharSequence, char[])}
+ * them and to restrict country codes (see {@link #setDefaultCountryCode(String)} and
+ * {@link #setAllowedCountryCodes(String...)}). Validator created with an {@link RegexValidator.Engine}
+ * matches phone numbers against regular expression instead, the way it was done before.
+ *
  * @author Denis Dudnik <deniska.dudnik@gmail.com>
  *
  */
 public class PhoneNumberValidator extends RegexValidator {
-	
+
 	/**
 	 * This regular expression was found here: http://blog.stevenlevithan.com/archives/validate-phone-number
 	 * There are more regular expressions discussed in this article, this one is the most general one.
 	 */
+	private static final String PHONE_NUMBER_REGEX =
+			"^(?:\\+?[0-9]{1,3}[-. ]?)?\\(?([0-9]{3})\\)?[-. ]?([0-9]{3})[-. ]?([0-9]{4})$";
+
+	public static final int NUMBER_LENGTH = 10;
+	public static final int MAX_COUNTRY_CODE_LENGTH = 3;
+	/** minimal length of buffer for {@link #normalize(CharSequence, char[])} */
+	public static final int MAX_NORMALIZED_LENGTH = MAX_COUNTRY_CODE_LENGTH + NUMBER_LENGTH;
+
+	// chars between two digits, every gap is kept in 3 bits
+	private static final int GAP_EMPTY = 0;
+	private static final int GAP_SEPARATOR = 1;
+	private static final int GAP_OPEN = 2;
+	private static final int GAP_SEPARATOR_OPEN = 3;
+	private static final int GAP_CLOSE = 4;
+	private static final int GAP_CLOSE_SEPARATOR = 5;
+	private static final int GAP_PLUS = 6;
+	private static final int GAP_INVALID = 7;
+
+	private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000};
+
+	private final boolean scanned;
+	private String defaultCountryCode;
+	/** country codes are keyed by their value with 1 prepended, so that "1" and "001" differ */
+	private BitSet allowedCountryCodes;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
+
 	public PhoneNumberValidator() {
-		super("^(?:\\+?[0-9]{1,3}[-. ]?)?\\(?([0-9]{3})\\)?[-. ]?([0-9]{3})[-. ]?([0-9]{4})$");
+		super(PHONE_NUMBER_REGEX);
+		this.scanned = true;
+	}
+
+	/**
+	 * @param engine engine to match input values with, see {@link RegexValidator.Engine}
+	 */
+	public PhoneNumberValidator(Engine engine) {
+		super(PHONE_NUMBER_REGEX, engine);
+		this.scanned = false;
+	}
+
+	/**
+	 * @return <code>true</code> if phone numbers are parsed in one pass rather than matched by regular expression
+	 */
+	public boolean isScanned() {
+		return scanned;
+	}
+
+	/**
+	 * @param countryCode 1 to 3 digits prepended to normalized phone numbers typed without country code,
+	 * <code>null</code> to leave them as they are
+	 */
+	public void setDefaultCountryCode(String countryCode) {
+		if (countryCode != null) {
+			countryCodeKey(countryCode);
+		}
+		this.defaultCountryCode = countryCode;
+	}
+
+	public String getDefaultCountryCode() {
+		return defaultCountryCode;
+	}
+
+	/**
+	 * Phone numbers typed with other country codes are not valid, phone numbers without country code are
+	 * always valid. Works only for validator parsing phone numbers in one pass.
+	 *
+	 * @param countryCodes 1 to 3 digits each, none to allow any country code
+	 */
+	public void setAllowedCountryCodes(String... countryCodes) {
+		if (countryCodes == null || countryCodes.length == 0) {
+			this.allowedCountryCodes = null;
+			return;
+		}
+		BitSet codes = new BitSet(POWERS_OF_TEN[MAX_COUNTRY_CODE_LENGTH] * 2);
+		for (String countryCode : countryCodes) {
+			codes.set(countryCodeKey(countryCode));
+		}
+		this.allowedCountryCodes = codes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(String valueToValidate) {
+		return scanned ? validateChars(valueToValidate) : super.validate(valueToValidate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		return scanned ? validateChars(CharRange.of(value, start, end)) : super.validate(value, start, end);
+	}
+
+	private ValidationResult validateChars(CharSequence valueToValidate) {
+		if (valueToValidate == null || valueToValidate.length() == 0 || scan(valueToValidate, null) >= 0) {
+			return okResult;
+		}
+		// chars could change after validation, so message is formatted from their copy
+		final String value = valueToValidate.toString();
+		return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				return getErrorMessage(value);
+			}
+		}, this);
+	}
+
+	/**
+	 * Validates phone number and writes its canonical form to given buffer: digits of country code
+	 * (typed or default one, if any) followed by {@link #NUMBER_LENGTH} digits of the number.
+	 * Nothing is allocated, so it could be called for every record of bulk pipelines.
+	 *
+	 * @param buffer at least {@link #MAX_NORMALIZED_LENGTH} chars, its content is undefined
+	 * if phone number is not valid
+	 * @return number of chars written to buffer or -1 if phone number is not valid
+	 */
+	public int normalize(CharSequence value, char[] buffer) {
+		if (buffer == null || buffer.length < MAX_NORMALIZED_LENGTH) {
+			throw new IllegalArgumentException(
+					String.format("Buffer should have at least %d chars!", MAX_NORMALIZED_LENGTH));
+		}
+		return value != null ? scan(value, buffer) : -1;
+	}
+
+	/**
+	 * @return canonical form of phone number (see {@link #normalize(CharSequence, char[])})
+	 * or <code>null</code> if it's not valid
+	 */
+	public String normalize(CharSequence value) {
+		char[] buffer = new char[MAX_NORMALIZED_LENGTH];
+		int length = normalize(value, buffer);
+		return length >= 0 ? new String(buffer, 0, length) : null;
+	}
+
+	/**
+	 * @return this validator if phone numbers are parsed in one pass, it does not keep any state of fields,
+	 *  so {@link #setIncremental(boolean)} has no effect on it
+	 */
+	@Override
+	public IValidator createFieldValidator() {
+		return scanned ? this : super.createFieldValidator();
+	}
+
+	@Override
+	public int getCost() {
+		return scanned ? DEFAULT_COST : super.getCost();
 	}
 
 	@Override
@@ -33,4 +190,118 @@ public class PhoneNumberValidator extends RegexValidator {
 		return String.format("Phone number \"%s\" is not valid", valueToValidate);
 	}
 
+	/**
+	 * Accepts the same phone numbers as regular expression does. Digits are written to buffer unless it's
+	 * <code>null</code>, chars between digits are remembered and checked when number of digits
+	 * and so length of country code is known.
+	 *
+	 * @return length of canonical form or -1 if phone number is not valid
+	 */
+	private int scan(CharSequence value, char[] buffer) {
+		int digitCount = 0;
+		int leadingDigits = 0;
+		long gaps = 0;
+		int gap = GAP_EMPTY;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (digitCount == MAX_NORMALIZED_LENGTH) {
+					return -1;
+				}
+				gaps |= (long) gap << (3 * digitCount);
+				gap = GAP_EMPTY;
+				if (digitCount < MAX_COUNTRY_CODE_LENGTH) {
+					leadingDigits = leadingDigits * 10 + (c - '0');
+				}
+				if (buffer != null) {
+					buffer[digitCount] = c;
+				}
+				digitCount++;
+			} else {
+				gap = nextGap(gap, c);
+				if (gap == GAP_INVALID) {
+					return -1;
+				}
+			}
+		}
+		if (gap != GAP_EMPTY || digitCount < NUMBER_LENGTH) {
+			return -1;
+		}
+
+		int codeLength = digitCount - NUMBER_LENGTH;
+		int leadingGap = (int) (gaps & 7);
+		if (leadingGap != GAP_EMPTY && leadingGap != (codeLength > 0 ? GAP_PLUS : GAP_OPEN)) {
+			return -1;
+		}
+		for (int k = 1; k < digitCount; k++) {
+			int digitGap = (int) (gaps >>> (3 * k)) & 7;
+			if (digitGap == GAP_EMPTY) {
+				continue;
+			}
+			boolean allowed;
+			if (k == codeLength) {
+				allowed = digitGap == GAP_SEPARATOR || digitGap == GAP_OPEN || digitGap == GAP_SEPARATOR_OPEN;
+			} else if (k == codeLength + 3) {
+				allowed = digitGap == GAP_CLOSE || digitGap == GAP_SEPARATOR || digitGap == GAP_CLOSE_SEPARATOR;
+			} else {
+				allowed = k == codeLength + 6 && digitGap == GAP_SEPARATOR;
+			}
+			if (!allowed) {
+				return -1;
+			}
+		}
+
+		if (codeLength > 0) {
+			int code = leadingDigits / POWERS_OF_TEN[MAX_COUNTRY_CODE_LENGTH - codeLength];
+			BitSet codes = allowedCountryCodes;
+			if (codes != null && !codes.get(POWERS_OF_TEN[codeLength] + code)) {
+				return -1;
+			}
+			return digitCount;
+		}
+		String countryCode = defaultCountryCode;
+		if (countryCode == null) {
+			return digitCount;
+		}
+		if (buffer != null) {
+			System.arraycopy(buffer, 0, buffer, countryCode.length(), digitCount);
+			countryCode.getChars(0, countryCode.length(), buffer, 0);
+		}
+		return countryCode.length() + digitCount;
+	}
+
+	private static int nextGap(int gap, char c) {
+		switch (c) {
+		case '-':
+		case '.':
+		case ' ':
+			return gap == GAP_EMPTY ? GAP_SEPARATOR : gap == GAP_CLOSE ? GAP_CLOSE_SEPARATOR : GAP_INVALID;
+		case '(':
+			return gap == GAP_EMPTY ? GAP_OPEN : gap == GAP_SEPARATOR ? GAP_SEPARATOR_OPEN : GAP_INVALID;
+		case ')':
+			return gap == GAP_EMPTY ? GAP_CLOSE : GAP_INVALID;
+		case '+':
+			return gap == GAP_EMPTY ? GAP_PLUS : GAP_INVALID;
+		default:
+			return GAP_INVALID;
+		}
+	}
+
+	private static int countryCodeKey(String countryCode) {
+		if (countryCode == null || countryCode.isEmpty() || countryCode.length() > MAX_COUNTRY_CODE_LENGTH) {
+			throw new IllegalArgumentException(String.format("Country code %s should have 1 to %d digits!",
+					countryCode, MAX_COUNTRY_CODE_LENGTH));
+		}
+		int code = 0;
+		for (int i = 0; i < countryCode.length(); i++) {
+			char c = countryCode.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException(String.format("Country code %s should have 1 to %d digits!",
+						countryCode, MAX_COUNTRY_CODE_LENGTH));
+			}
+			code = code * 10 + (c - '0');
+		}
+		return POWERS_OF_TEN[countryCode.length()] + code;
+	}
+
 }
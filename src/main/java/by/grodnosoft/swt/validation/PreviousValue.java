@@ -0,0 +1,62 @@
+package by.grodnosoft.swt.validation;
+
+/**
+ * Previous value of a field kept by field validators to find out how much of it the new value shares.
+ * Strings are kept as they are, other chars are copied, since they could change after validation.
+ * Copy is reused and only chars after common prefix are copied again.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class PreviousValue {
+
+	private CharSequence value = "";
+	private StringBuilder copy;
+
+	int length() {
+		return value.length();
+	}
+
+	/**
+	 * @return <code>true</code> if given chars start with previous value
+	 */
+	boolean isPrefixOf(CharSequence newValue) {
+		if (value instanceof String && newValue instanceof String) {
+			return ((String) newValue).startsWith((String) value);
+		}
+		return newValue.length() >= value.length() && commonPrefix(newValue) == value.length();
+	}
+
+	/**
+	 * @return length of common prefix of previous value and given chars
+	 */
+	int commonPrefix(CharSequence newValue) {
+		int length = Math.min(value.length(), newValue.length());
+		int common = 0;
+		while (common < length && value.charAt(common) == newValue.charAt(common)) {
+			common++;
+		}
+		return common;
+	}
+
+	/**
+	 * @param common length of common prefix of previous value and given chars
+	 */
+	void set(CharSequence newValue, int common) {
+		if (newValue instanceof String) {
+			value = newValue;
+			return;
+		}
+		if (copy == null) {
+			copy = new StringBuilder(newValue.length());
+		}
+		copy.setLength(value == copy ? common : 0);
+		copy.append(newValue, copy.length(), newValue.length());
+		value = copy;
+	}
+
+	void clear() {
+		value = "";
+	}
+
+}
@@ -0,0 +1,724 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deterministic finite automaton compiled from a regular expression. Matching takes time linear
+ * to input length whatever the pattern is, since there's no backtracking.
+ * <p>
+ * Only a subset of {@link java.util.regex.Pattern} syntax is supported: literals, character classes
+ * (without nesting and intersections), predefined classes <code>. \d \D \s \S \w \W</code>, groups,
+ * alternation, greedy and reluctant quantifiers, <code>^</code> at the very beginning and <code>$</code>
+ * at the very end of expression. {@link #compile(String)} returns <code>null</code> for anything else,
+ * i.e. back references, lookarounds, flags, possessive quantifiers or patterns producing too many states.
+ * <p>
+ * Input is matched char by char, so matching of a string containing surrogate pairs is not
+ * supported and should be done by {@link java.util.regex.Pattern} instead.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class RegexDfa {
+
+	/** state which never leads to accepting one, no input containing such prefix could ever match */
+	static final int DEAD_STATE = 0;
+	/** returned by {@link #run(int, CharSequence, int, int)} when input could not be matched by automaton */
+	static final int UNSUPPORTED_INPUT = -1;
+
+	private static final int MAX_NFA_STATES = 10000;
+	private static final int MAX_DFA_STATES = 2000;
+	private static final int MAX_TRANSITIONS = 1 << 20;
+	private static final int ASCII_LIMIT = 128;
+
+	private static final int[] ANY_CHAR_RANGES = complement(new int[] {
+			'\n', '\n', '\r', '\r', '\u0085', '\u0085', '\u2028', '\u2029'});
+	private static final int[] DIGIT_RANGES = {'0', '9'};
+	private static final int[] SPACE_RANGES = {'\t', '\r', ' ', ' '};
+	private static final int[] WORD_RANGES = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+
+	/** first char of every input char class, sorted */
+	private final char[] classStarts;
+	private final int[] asciiClasses;
+	private final int classCount;
+	/** transitions indexed by <code>state * classCount + charClass</code> */
+	private final int[] transitions;
+	private final boolean[] accepting;
+	private final int startState;
+
+	private RegexDfa(char[] classStarts, int[] transitions, boolean[] accepting, int startState) {
+		this.classStarts = classStarts;
+		this.classCount = classStarts.length;
+		this.transitions = transitions;
+		this.accepting = accepting;
+		this.startState = startState;
+		this.asciiClasses = new int[ASCII_LIMIT];
+		for (char c = 0; c < ASCII_LIMIT; c++) {
+			asciiClasses[c] = findCharClass(c);
+		}
+	}
+
+	/**
+	 * @return automaton for given regular expression or <code>null</code> if it could not be compiled to automaton
+	 */
+	static RegexDfa compile(String regex) {
+		try {
+			Node root = new Parser(regex).parse();
+			return new Builder(root).build();
+		} catch (UnsupportedSyntaxException e) {
+			return null;
+		}
+	}
+
+	int getStartState() {
+		return startState;
+	}
+
+	int getStateCount() {
+		return accepting.length;
+	}
+
+	boolean isAccepting(int state) {
+		return accepting[state];
+	}
+
+	/**
+	 * Feeds given range of input chars to automaton starting from given state.
+	 *
+	 * @return reached state or {@link #UNSUPPORTED_INPUT} if input contains surrogate chars
+	 */
+	int run(int state, CharSequence input, int from, int to) {
+		for (int i = from; i < to && state != DEAD_STATE; i++) {
+			char c = input.charAt(i);
+			if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+				return UNSUPPORTED_INPUT;
+			}
+			int charClass = c < ASCII_LIMIT ? asciiClasses[c] : findCharClass(c);
+			state = transitions[state * classCount + charClass];
+		}
+		return state;
+	}
+
+	private int findCharClass(char c) {
+		int index = Arrays.binarySearch(classStarts, c);
+		return index >= 0 ? index : -index - 2;
+	}
+
+	private static class UnsupportedSyntaxException extends Exception {
+		private static final long serialVersionUID = 1L;
+	}
+
+	/**
+	 * Regular expression tree: char set, sequence, alternation or repetition
+	 */
+	private static class Node {
+		final int[] ranges;
+		final List<Node> children;
+		final boolean alternation;
+		final int min;
+		final int max;
+
+		private Node(int[] ranges, List<Node> children, boolean alternation, int min, int max) {
+			this.ranges = ranges;
+			this.children = children;
+			this.alternation = alternation;
+			this.min = min;
+			this.max = max;
+		}
+
+		static Node chars(int[] ranges) {
+			return new Node(ranges, null, false, 1, 1);
+		}
+
+		static Node sequence(List<Node> children) {
+			return new Node(null, children, false, 1, 1);
+		}
+
+		static Node alternation(List<Node> children) {
+			return new Node(null, children, true, 1, 1);
+		}
+
+		static Node repetition(Node child, int min, int max) {
+			List<Node> children = new ArrayList<Node>(1);
+			children.add(child);
+			return new Node(null, children, false, min, max);
+		}
+
+		boolean isRepetition() {
+			return ranges == null && !alternation && (min != 1 || max != 1);
+		}
+	}
+
+	/**
+	 * Recursive descent parser of supported regular expression subset
+	 */
+	private static class Parser {
+
+		private final String regex;
+		private int position;
+		private int end;
+
+		Parser(String regex) {
+			this.regex = regex;
+			this.end = regex.length();
+		}
+
+		Node parse() throws UnsupportedSyntaxException {
+			// in matches() mode anchors at the edges do not change anything
+			if (position < end && regex.charAt(position) == '^') {
+				position++;
+			}
+			if (end > position && regex.charAt(end - 1) == '$' && !isEscaped(end - 1)) {
+				end--;
+			}
+			Node root = parseAlternation();
+			if (position != end) {
+				throw new UnsupportedSyntaxException();
+			}
+			return root;
+		}
+
+		private boolean isEscaped(int index) {
+			int backslashes = 0;
+			while (index - backslashes - 1 >= 0 && regex.charAt(index - backslashes - 1) == '\\') {
+				backslashes++;
+			}
+			return backslashes % 2 == 1;
+		}
+
+		private Node parseAlternation() throws UnsupportedSyntaxException {
+			List<Node> alternatives = new ArrayList<Node>();
+			alternatives.add(parseSequence());
+			while (position < end && regex.charAt(position) == '|') {
+				position++;
+				alternatives.add(parseSequence());
+			}
+			return alternatives.size() == 1 ? alternatives.get(0) : Node.alternation(alternatives);
+		}
+
+		private Node parseSequence() throws UnsupportedSyntaxException {
+			List<Node> items = new ArrayList<Node>();
+			while (position < end && regex.charAt(position) != '|' && regex.charAt(position) != ')') {
+				items.add(parseQuantifier(parseAtom()));
+			}
+			return items.size() == 1 ? items.get(0) : Node.sequence(items);
+		}
+
+		private Node parseQuantifier(Node atom) throws UnsupportedSyntaxException {
+			while (position < end) {
+				char c = regex.charAt(position);
+				int min;
+				int max;
+				if (c == '*') {
+					min = 0;
+					max = -1;
+					position++;
+				} else if (c == '+') {
+					min = 1;
+					max = -1;
+					position++;
+				} else if (c == '?') {
+					min = 0;
+					max = 1;
+					position++;
+				} else if (c == '{') {
+					position++;
+					min = parseNumber();
+					max = min;
+					if (position < end && regex.charAt(position) == ',') {
+						position++;
+						max = position < end && regex.charAt(position) == '}' ? -1 : parseNumber();
+					}
+					expect('}');
+					if (max >= 0 && max < min) {
+						throw new UnsupportedSyntaxException();
+					}
+				} else {
+					return atom;
+				}
+				if (position < end && regex.charAt(position) == '?') {
+					// reluctant quantifier makes no difference when whole input should match
+					position++;
+				} else if (position < end && regex.charAt(position) == '+') {
+					// possessive quantifier does, it never gives back what was matched
+					throw new UnsupportedSyntaxException();
+				}
+				atom = Node.repetition(atom, min, max);
+			}
+			return atom;
+		}
+
+		private int parseNumber() throws UnsupportedSyntaxException {
+			int start = position;
+			int number = 0;
+			while (position < end && regex.charAt(position) >= '0' && regex.charAt(position) <= '9') {
+				number = number * 10 + regex.charAt(position) - '0';
+				if (number > MAX_NFA_STATES) {
+					throw new UnsupportedSyntaxException();
+				}
+				position++;
+			}
+			if (position == start) {
+				throw new UnsupportedSyntaxException();
+			}
+			return number;
+		}
+
+		private void expect(char c) throws UnsupportedSyntaxException {
+			if (position >= end || regex.charAt(position) != c) {
+				throw new UnsupportedSyntaxException();
+			}
+			position++;
+		}
+
+		private Node parseAtom() throws UnsupportedSyntaxException {
+			char c = regex.charAt(position++);
+			switch (c) {
+				case '(':
+					if (position < end && regex.charAt(position) == '?') {
+						position++;
+						if (position < end && regex.charAt(position) == ':') {
+							position++;
+						} else if (position + 1 < end && regex.charAt(position) == '<'
+								&& Character.isLetter(regex.charAt(position + 1))) {
+							// named capturing group
+							position = regex.indexOf('>', position) + 1;
+							if (position == 0) {
+								throw new UnsupportedSyntaxException();
+							}
+						} else {
+							throw new UnsupportedSyntaxException();
+						}
+					}
+					Node group = parseAlternation();
+					expect(')');
+					return group;
+				case '[':
+					return Node.chars(parseCharClass());
+				case '.':
+					return Node.chars(ANY_CHAR_RANGES);
+				case '\\':
+					return Node.chars(parseEscape(false));
+				case '^':
+				case '$':
+				case '*':
+				case '+':
+				case '?':
+				case '{':
+				case ')':
+					throw new UnsupportedSyntaxException();
+				default:
+					return Node.chars(new int[] {c, c});
+			}
+		}
+
+		/**
+		 * @return ranges of chars matched by escape sequence
+		 */
+		private int[] parseEscape(boolean insideCharClass) throws UnsupportedSyntaxException {
+			if (position >= end) {
+				throw new UnsupportedSyntaxException();
+			}
+			char c = regex.charAt(position++);
+			switch (c) {
+				case 'd':
+					return DIGIT_RANGES;
+				case 'D':
+					return complement(DIGIT_RANGES);
+				case 's':
+					return SPACE_RANGES;
+				case 'S':
+					return complement(SPACE_RANGES);
+				case 'w':
+					return WORD_RANGES;
+				case 'W':
+					return complement(WORD_RANGES);
+				case 't':
+					return single('\t');
+				case 'n':
+					return single('\n');
+				case 'r':
+					return single('\r');
+				case 'f':
+					return single('\f');
+				case 'a':
+					return single('\u0007');
+				case 'e':
+					return single('\u001B');
+				case 'x':
+					return single(parseHex(2));
+				case 'u':
+					return single(parseHex(4));
+				default:
+					if (Character.isLetterOrDigit(c)) {
+						// back references, boundaries, quotations, unicode classes etc.
+						throw new UnsupportedSyntaxException();
+					}
+					return single(c);
+			}
+		}
+
+		private char parseHex(int digits) throws UnsupportedSyntaxException {
+			if (position + digits > end) {
+				throw new UnsupportedSyntaxException();
+			}
+			int value = 0;
+			for (int i = 0; i < digits; i++) {
+				int digit = Character.digit(regex.charAt(position++), 16);
+				if (digit < 0) {
+					throw new UnsupportedSyntaxException();
+				}
+				value = value * 16 + digit;
+			}
+			if (value >= Character.MIN_SURROGATE && value <= Character.MAX_SURROGATE) {
+				throw new UnsupportedSyntaxException();
+			}
+			return (char) value;
+		}
+
+		private int[] parseCharClass() throws UnsupportedSyntaxException {
+			boolean negated = false;
+			if (position < end && regex.charAt(position) == '^') {
+				negated = true;
+				position++;
+			}
+			List<int[]> parts = new ArrayList<int[]>();
+			boolean first = true;
+			while (true) {
+				if (position >= end) {
+					throw new UnsupportedSyntaxException();
+				}
+				char c = regex.charAt(position);
+				if (c == ']' && !first) {
+					position++;
+					break;
+				}
+				if (c == '[' || c == ']' || (c == '&' && position + 1 < end && regex.charAt(position + 1) == '&')) {
+					// nested classes and intersections
+					throw new UnsupportedSyntaxException();
+				}
+				first = false;
+				position++;
+				int[] from = c == '\\' ? parseEscape(true) : single(c);
+				if (position + 1 < end && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']') {
+					position++;
+					char toChar = regex.charAt(position++);
+					int[] to = toChar == '\\' ? parseEscape(true) : single(toChar);
+					if (!isSingle(from) || !isSingle(to) || from[0] > to[0]) {
+						throw new UnsupportedSyntaxException();
+					}
+					parts.add(new int[] {from[0], to[0]});
+				} else {
+					parts.add(from);
+				}
+			}
+			int[] ranges = union(parts);
+			return negated ? complement(ranges) : ranges;
+		}
+
+		private static int[] single(char c) {
+			return new int[] {c, c};
+		}
+
+		private static boolean isSingle(int[] ranges) {
+			return ranges.length == 2 && ranges[0] == ranges[1];
+		}
+	}
+
+	/**
+	 * Builds NFA from regular expression tree and then DFA from NFA by subset construction.
+	 */
+	private static class Builder {
+
+		private final Node root;
+		private int nfaAccept;
+		private final List<int[]> epsilons = new ArrayList<int[]>();
+		private final List<int[]> charRanges = new ArrayList<int[]>();
+		private final List<Integer> charTargets = new ArrayList<Integer>();
+		private char[] classStarts;
+
+		Builder(Node root) {
+			this.root = root;
+		}
+
+		RegexDfa build() throws UnsupportedSyntaxException {
+			int nfaStart = newState();
+			nfaAccept = buildNfa(root, nfaStart);
+			classStarts = buildCharClasses();
+			int classCount = classStarts.length;
+			BitSet[] classesByState = new BitSet[charRanges.size()];
+			for (int state = 0; state < charRanges.size(); state++) {
+				if (charRanges.get(state) != null) {
+					classesByState[state] = toCharClasses(charRanges.get(state));
+				}
+			}
+
+			List<int[]> dfaStates = new ArrayList<int[]>();
+			Map<String, Integer> dfaStateIds = new HashMap<String, Integer>();
+			List<int[]> dfaTransitions = new ArrayList<int[]>();
+			// dead state is always first
+			dfaStates.add(new int[0]);
+			dfaStateIds.put(Arrays.toString(new int[0]), DEAD_STATE);
+			dfaTransitions.add(new int[classCount]);
+			int[] start = closure(new int[] {nfaStart});
+			dfaStates.add(start);
+			dfaStateIds.put(Arrays.toString(start), 1);
+			for (int dfaState = 1; dfaState < dfaStates.size(); dfaState++) {
+				int[] nfaStates = dfaStates.get(dfaState);
+				int[] row = new int[classCount];
+				for (int charClass = 0; charClass < classCount; charClass++) {
+					int[] targets = move(nfaStates, charClass, classesByState);
+					String key = Arrays.toString(targets);
+					Integer target = dfaStateIds.get(key);
+					if (target == null) {
+						target = dfaStates.size();
+						if (target >= MAX_DFA_STATES || (long) (target + 1) * classCount > MAX_TRANSITIONS) {
+							throw new UnsupportedSyntaxException();
+						}
+						dfaStates.add(targets);
+						dfaStateIds.put(key, target);
+					}
+					row[charClass] = target;
+				}
+				dfaTransitions.add(row);
+			}
+
+			int[] transitions = new int[dfaStates.size() * classCount];
+			boolean[] accepting = new boolean[dfaStates.size()];
+			for (int dfaState = 0; dfaState < dfaStates.size(); dfaState++) {
+				System.arraycopy(dfaTransitions.get(dfaState), 0, transitions, dfaState * classCount, classCount);
+				accepting[dfaState] = Arrays.binarySearch(dfaStates.get(dfaState), nfaAccept) >= 0;
+			}
+			boolean[] live = findLiveStates(transitions, accepting, classCount);
+			for (int i = 0; i < transitions.length; i++) {
+				if (!live[transitions[i]]) {
+					transitions[i] = DEAD_STATE;
+				}
+			}
+			return new RegexDfa(classStarts, transitions, accepting, live[1] ? 1 : DEAD_STATE);
+		}
+
+		/**
+		 * @return states from which some accepting state is reachable, all others are as good as dead one
+		 */
+		private static boolean[] findLiveStates(int[] transitions, boolean[] accepting, int classCount) {
+			boolean[] live = accepting.clone();
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (int state = 0; state < live.length; state++) {
+					for (int charClass = 0; !live[state] && charClass < classCount; charClass++) {
+						if (live[transitions[state * classCount + charClass]]) {
+							live[state] = true;
+							changed = true;
+						}
+					}
+				}
+			}
+			return live;
+		}
+
+		private int newState() throws UnsupportedSyntaxException {
+			if (charRanges.size() >= MAX_NFA_STATES) {
+				throw new UnsupportedSyntaxException();
+			}
+			epsilons.add(new int[0]);
+			charRanges.add(null);
+			charTargets.add(-1);
+			return charRanges.size() - 1;
+		}
+
+		private void addEpsilon(int from, int to) {
+			int[] targets = epsilons.get(from);
+			int[] newTargets = Arrays.copyOf(targets, targets.length + 1);
+			newTargets[targets.length] = to;
+			epsilons.set(from, newTargets);
+		}
+
+		/**
+		 * Thompson's construction, every state has at most one char transition.
+		 *
+		 * @return state reached after matching given node from given state
+		 */
+		private int buildNfa(Node node, int from) throws UnsupportedSyntaxException {
+			if (node.ranges != null) {
+				int to = newState();
+				charRanges.set(from, node.ranges);
+				charTargets.set(from, to);
+				// from state may already have a char transition, so route via a fresh one
+				return to;
+			}
+			if (node.alternation) {
+				int to = newState();
+				for (Node child : node.children) {
+					int childStart = newState();
+					addEpsilon(from, childStart);
+					addEpsilon(buildNfa(child, childStart), to);
+				}
+				return to;
+			}
+			if (node.isRepetition()) {
+				Node child = node.children.get(0);
+				int current = from;
+				for (int i = 0; i < node.min; i++) {
+					current = buildNfa(child, fresh(current));
+				}
+				if (node.max < 0) {
+					int loop = newState();
+					addEpsilon(current, loop);
+					addEpsilon(buildNfa(child, fresh(loop)), loop);
+					return loop;
+				}
+				for (int i = node.min; i < node.max; i++) {
+					int next = newState();
+					addEpsilon(current, next);
+					addEpsilon(buildNfa(child, fresh(current)), next);
+					current = next;
+				}
+				return current;
+			}
+			int current = from;
+			for (Node child : node.children) {
+				current = buildNfa(child, fresh(current));
+			}
+			return current;
+		}
+
+		/**
+		 * @return state reachable from given one by epsilon transition having no char transition yet
+		 */
+		private int fresh(int state) throws UnsupportedSyntaxException {
+			if (charRanges.get(state) == null && epsilons.get(state).length == 0) {
+				return state;
+			}
+			int fresh = newState();
+			addEpsilon(state, fresh);
+			return fresh;
+		}
+
+		/**
+		 * Splits all chars into classes, so that chars of a class are either all matched or all not matched
+		 * by every char transition.
+		 */
+		private char[] buildCharClasses() {
+			BitSet boundaries = new BitSet(Character.MAX_VALUE + 2);
+			boundaries.set(0);
+			for (int[] ranges : charRanges) {
+				if (ranges == null) {
+					continue;
+				}
+				for (int i = 0; i < ranges.length; i += 2) {
+					boundaries.set(ranges[i]);
+					boundaries.set(ranges[i + 1] + 1);
+				}
+			}
+			boundaries.clear(Character.MAX_VALUE + 1);
+			char[] starts = new char[boundaries.cardinality()];
+			int index = 0;
+			for (int c = boundaries.nextSetBit(0); c >= 0; c = boundaries.nextSetBit(c + 1)) {
+				starts[index++] = (char) c;
+			}
+			return starts;
+		}
+
+		private BitSet toCharClasses(int[] ranges) {
+			BitSet classes = new BitSet(classStarts.length);
+			for (int i = 0; i < ranges.length; i += 2) {
+				int fromClass = Arrays.binarySearch(classStarts, (char) ranges[i]);
+				for (int charClass = fromClass; charClass < classStarts.length
+						&& classStarts[charClass] <= ranges[i + 1]; charClass++) {
+					classes.set(charClass);
+				}
+			}
+			return classes;
+		}
+
+		private int[] move(int[] nfaStates, int charClass, BitSet[] classesByState) {
+			BitSet targets = new BitSet();
+			for (int state : nfaStates) {
+				if (classesByState[state] != null && classesByState[state].get(charClass)) {
+					targets.set(charTargets.get(state));
+				}
+			}
+			return closure(toArray(targets));
+		}
+
+		private int[] closure(int[] states) {
+			BitSet reached = new BitSet();
+			int[] stack = new int[charRanges.size()];
+			int size = 0;
+			for (int state : states) {
+				reached.set(state);
+				stack[size++] = state;
+			}
+			while (size > 0) {
+				int state = stack[--size];
+				for (int target : epsilons.get(state)) {
+					if (!reached.get(target)) {
+						reached.set(target);
+						stack[size++] = target;
+					}
+				}
+			}
+			// only states with char transitions and accepting one matter for further matching
+			BitSet significant = new BitSet();
+			for (int state = reached.nextSetBit(0); state >= 0; state = reached.nextSetBit(state + 1)) {
+				if (charRanges.get(state) != null || state == nfaAccept) {
+					significant.set(state);
+				}
+			}
+			return toArray(significant);
+		}
+
+		private static int[] toArray(BitSet bits) {
+			int[] array = new int[bits.cardinality()];
+			int index = 0;
+			for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+				array[index++] = bit;
+			}
+			return array;
+		}
+	}
+
+	/**
+	 * @return sorted disjoint ranges covering all given ones
+	 */
+	private static int[] union(List<int[]> parts) {
+		BitSet chars = new BitSet(Character.MAX_VALUE + 1);
+		for (int[] ranges : parts) {
+			for (int i = 0; i < ranges.length; i += 2) {
+				chars.set(ranges[i], ranges[i + 1] + 1);
+			}
+		}
+		return toRanges(chars);
+	}
+
+	private static int[] complement(int[] ranges) {
+		BitSet chars = new BitSet(Character.MAX_VALUE + 1);
+		chars.set(0, Character.MAX_VALUE + 1);
+		for (int i = 0; i < ranges.length; i += 2) {
+			chars.clear(ranges[i], ranges[i + 1] + 1);
+		}
+		return toRanges(chars);
+	}
+
+	private static int[] toRanges(BitSet chars) {
+		List<Integer> bounds = new ArrayList<Integer>();
+		for (int from = chars.nextSetBit(0); from >= 0; ) {
+			int to = chars.nextClearBit(from);
+			bounds.add(from);
+			bounds.add(to - 1);
+			from = to <= Character.MAX_VALUE ? chars.nextSetBit(to) : -1;
+		}
+		int[] ranges = new int[bounds.size()];
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = bounds.get(i);
+		}
+		return ranges;
+	}
+
+}
@@ -1,36 +1,215 @@
 package by.grodnosoft.swt.validation;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IIncrementalValidator;
 import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
 
 /**
  * Validates input value against specified regular expression.
+ * <p>
+ * In incremental mode (see {@link #setIncremental(boolean)}) every validated field remembers automaton state
+ * reached for its previous value, so when user appends text only appended chars are matched. Value which
+ * does not match but could still become matching after appending some text is reported with
+ * {@link ValidationStatus#WARNING} status, {@link ValidationStatus#ERROR} means no text appended could help.
+ * Without automaton (see {@link Engine}) this is decided by {@link Matcher#hitEnd()},
+ * which may report incomplete values for some that could never match.
  *
  * @author Denis Dudnik <deniska.dudnik@gmail.com>
  */
-public class RegexValidator implements IValidator{
+public class RegexValidator implements IIncrementalValidator, ICharSequenceValidator, ICostAwareValidator {
+
+	/**
+	 * Engine used to match input values
+	 */
+	public enum Engine {
+		/** {@link Pattern} based, supports any regular expression but may take exponential time on backtracking */
+		JAVA_REGEX,
+		/**
+		 * Regular expression is compiled to deterministic automaton matching in linear time.
+		 * Not every regular expression is supported (i.e. back references and lookarounds are not),
+		 * {@link Pattern} is used for those.
+		 */
+		DFA
+	}
 	
 	private final Pattern pattern;
+	private final RegexDfa dfa;
+	private boolean incremental;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
 	
 	public RegexValidator(String regex) {
+		this(regex, Engine.JAVA_REGEX);
+	}
+
+	/**
+	 * @param regex regular expression to match input values against
+	 * @param engine engine to match input values with
+	 */
+	public RegexValidator(String regex, Engine engine) {
 		this.pattern = Pattern.compile(regex);
+		this.dfa = Engine.DFA.equals(engine) ? RegexDfa.compile(regex) : null;
+	}
+
+	/**
+	 * @return engine actually used for matching, could be {@link Engine#JAVA_REGEX} even if {@link Engine#DFA}
+	 * was requested but regular expression could not be compiled to automaton
+	 */
+	public Engine getEngine() {
+		return dfa != null ? Engine.DFA : Engine.JAVA_REGEX;
+	}
+
+	/**
+	 * @return {@link #HIGH_COST} for backtracking engine, {@link #DEFAULT_COST} for automaton
+	 */
+	@Override
+	public int getCost() {
+		return dfa != null ? DEFAULT_COST : HIGH_COST;
+	}
+
+	/**
+	 * Turn incremental validation of fields on or off, it's off by default.
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IValidator createFieldValidator() {
+		return incremental ? new FieldMatcher() : this;
 	}
 
 	@Override
 	public ValidationResult validate(String valueToValidate) {
 		if (valueToValidate != null && !valueToValidate.isEmpty()
-				&& !pattern.matcher(valueToValidate).matches()) {
-			return new ValidationResult(
-					ValidationStatus.ERROR, getErrorMessage(valueToValidate), this);
+				&& !matches(valueToValidate)) {
+			return createErrorResult(valueToValidate);
+		}
+		return okResult;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		CharSequence valueToValidate = CharRange.of(value, start, end);
+		if (valueToValidate.length() > 0 && !matches(valueToValidate)) {
+			return createErrorResult(valueToValidate);
+		}
+		return okResult;
+	}
+
+	private ValidationResult createErrorResult(CharSequence valueToValidate) {
+		// chars could change after validation, so message is formatted from their copy
+		final String value = valueToValidate.toString();
+		return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				return getErrorMessage(value);
+			}
+		}, this);
+	}
+
+	private boolean matches(CharSequence valueToValidate) {
+		if (dfa != null) {
+			int state = dfa.run(dfa.getStartState(), valueToValidate, 0, valueToValidate.length());
+			if (state != RegexDfa.UNSUPPORTED_INPUT) {
+				return dfa.isAccepting(state);
+			}
 		}
-		return new ValidationResult(ValidationStatus.OK, this);
+		return pattern.matcher(valueToValidate).matches();
 	}
 	
 	protected String getErrorMessage(String valueToValidate) {
 		return String.format("Value \"%s\" does not match regular expression \"%s\"", valueToValidate, pattern.pattern());
 	}
+
+	protected String getIncompleteMessage(String valueToValidate) {
+		return String.format("Value \"%s\" is incomplete", valueToValidate);
+	}
+
+	/**
+	 * Validates values of a single field resuming from automaton state of previous value
+	 * if new one starts with it.
+	 */
+	private class FieldMatcher implements ICharSequenceValidator {
+
+		private final PreviousValue previousValue = new PreviousValue();
+		private int previousState = RegexDfa.UNSUPPORTED_INPUT;
+
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			return validateChars(valueToValidate);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public ValidationResult validate(CharSequence value, int start, int end) {
+			return validateChars(CharRange.of(value, start, end));
+		}
+
+		private ValidationResult validateChars(CharSequence valueToValidate) {
+			if (valueToValidate == null || valueToValidate.length() == 0) {
+				previousValue.clear();
+				previousState = RegexDfa.UNSUPPORTED_INPUT;
+				return okResult;
+			}
+			boolean matches;
+			boolean viable;
+			int state = dfa != null ? runDfa(valueToValidate) : RegexDfa.UNSUPPORTED_INPUT;
+			if (state != RegexDfa.UNSUPPORTED_INPUT) {
+				matches = dfa.isAccepting(state);
+				viable = state != RegexDfa.DEAD_STATE;
+			} else {
+				Matcher matcher = pattern.matcher(valueToValidate);
+				matches = matcher.matches();
+				// end of input was reached, so appending could change the result
+				viable = matcher.hitEnd();
+			}
+			if (matches) {
+				return okResult;
+			} else if (viable) {
+				// chars could change after validation, so message is formatted from their copy
+				final String value = valueToValidate.toString();
+				return ValidationResult.lazy(ValidationStatus.WARNING, new IMessageSupplier() {
+					@Override
+					public String getMessage() {
+						return getIncompleteMessage(value);
+					}
+				}, RegexValidator.this);
+			}
+			return createErrorResult(valueToValidate);
+		}
+
+		private int runDfa(CharSequence valueToValidate) {
+			int state;
+			int previousLength = previousValue.length();
+			if (previousState != RegexDfa.UNSUPPORTED_INPUT && previousValue.isPrefixOf(valueToValidate)) {
+				state = dfa.run(previousState, valueToValidate, previousLength, valueToValidate.length());
+				previousValue.set(valueToValidate, previousLength);
+			} else {
+				state = dfa.run(dfa.getStartState(), valueToValidate, 0, valueToValidate.length());
+				previousValue.set(valueToValidate, 0);
+			}
+			previousState = state;
+			return state;
+		}
+	}
 	
 }
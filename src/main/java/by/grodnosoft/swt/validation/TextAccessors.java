@@ -0,0 +1,224 @@
+package by.grodnosoft.swt.validation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.swt.custom.CCombo;
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.widgets.Combo;
+import org.eclipse.swt.widgets.Text;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IContentAccessor;
+import by.grodnosoft.swt.validation.ValidationToolkit.ITextAccessor;
+
+/**
+ * Registry of {@link ITextAccessor}s used to read text of validated fields.
+ * Common SWT controls are read directly, content of StyledText is read from its content model
+ * without copying (see {@link IContentAccessor}), any other class is read via its public <code>getText()</code>
+ * method which is looked up only once per class, even if there is no such method.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+final class TextAccessors {
+
+	private static final String GET_TEXT_METHOD_NAME = "getText";
+
+	/** accessors registered for a certain class and its subclasses, guards resolution too */
+	private static final Map<Class<?>, ITextAccessor<?>> registered = new HashMap<Class<?>, ITextAccessor<?>>();
+	/** accessors already resolved for concrete classes, read without locking */
+	private static final ConcurrentMap<Class<?>, ITextAccessor<?>> resolved =
+			new ConcurrentHashMap<Class<?>, ITextAccessor<?>>();
+
+	static {
+		register(Text.class, new ITextAccessor<Text>() {
+			@Override
+			public String getText(Text field) {
+				return field.getText();
+			}
+		});
+		register(Combo.class, new ITextAccessor<Combo>() {
+			@Override
+			public String getText(Combo field) {
+				return field.getText();
+			}
+		});
+		register(StyledText.class, new IContentAccessor<StyledText>() {
+			@Override
+			public String getText(StyledText field) {
+				return field.getText();
+			}
+
+			@Override
+			public CharSequence getContent(StyledText field) {
+				return new StyledTextContentSequence(field.getContent());
+			}
+		});
+		register(CCombo.class, new ITextAccessor<CCombo>() {
+			@Override
+			public String getText(CCombo field) {
+				return field.getText();
+			}
+		});
+	}
+
+	private TextAccessors() {
+	}
+
+	static <T> void register(Class<T> fieldType, ITextAccessor<? super T> accessor) {
+		if (fieldType == null) {
+			throw new IllegalArgumentException("Field type can't be null!");
+		}
+		if (accessor == null) {
+			throw new IllegalArgumentException("Text accessor can't be null!");
+		}
+		synchronized (registered) {
+			registered.put(fieldType, accessor);
+			resolved.clear();
+		}
+	}
+
+	static String getText(Object field) {
+		return forClass(field.getClass()).getText(field);
+	}
+
+	/**
+	 * @return content of the field if its accessor could read it without copying, its text otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	static CharSequence getContent(Object field) {
+		ITextAccessor<Object> accessor = forClass(field.getClass());
+		if (accessor instanceof IContentAccessor) {
+			return ((IContentAccessor<Object>) accessor).getContent(field);
+		}
+		return accessor.getText(field);
+	}
+
+	@SuppressWarnings("unchecked")
+	static ITextAccessor<Object> forClass(Class<?> fieldType) {
+		ITextAccessor<?> accessor = resolved.get(fieldType);
+		if (accessor == null) {
+			// registration clears resolved accessors under this lock too, so one resolved before it is never cached after it
+			synchronized (registered) {
+				accessor = resolved.get(fieldType);
+				if (accessor == null) {
+					accessor = resolve(fieldType);
+					resolved.put(fieldType, accessor);
+				}
+			}
+		}
+		return (ITextAccessor<Object>) accessor;
+	}
+
+	private static ITextAccessor<?> resolve(Class<?> fieldType) {
+		for (Class<?> type = fieldType; type != null; type = type.getSuperclass()) {
+			ITextAccessor<?> accessor = registered.get(type);
+			if (accessor != null) {
+				return accessor;
+			}
+		}
+		return new ReflectiveTextAccessor(fieldType);
+	}
+
+	/**
+	 * Content of a StyledText read in chunks as validators reach them, so that validators which look at
+	 * a few chars only (i.e. check emptiness or length) do not copy the whole content.
+	 */
+	private static class StyledTextContentSequence implements CharSequence {
+
+		private static final int CHUNK_SIZE = 4096;
+
+		private final StyledTextContent content;
+		private final int length;
+		private String chunk = "";
+		private int chunkStart;
+
+		StyledTextContentSequence(StyledTextContent content) {
+			this.content = content;
+			this.length = content.getCharCount();
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			if (index < chunkStart || index >= chunkStart + chunk.length()) {
+				if (index < 0 || index >= length) {
+					throw new IndexOutOfBoundsException(String.valueOf(index));
+				}
+				chunkStart = index - index % CHUNK_SIZE;
+				chunk = content.getTextRange(chunkStart, Math.min(CHUNK_SIZE, length - chunkStart));
+			}
+			return chunk.charAt(index - chunkStart);
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return CharRange.of(this, start, end);
+		}
+
+		@Override
+		public String toString() {
+			return content.getTextRange(0, length);
+		}
+	}
+
+	/**
+	 * Invokes public <code>getText()</code> method, declared or inherited, resolved once on creation.
+	 * If there is no such method, every call fails without looking it up again.
+	 */
+	private static class ReflectiveTextAccessor implements ITextAccessor<Object> {
+
+		private final Class<?> fieldType;
+		private final Method getTextMethod;
+
+		ReflectiveTextAccessor(Class<?> fieldType) {
+			this.fieldType = fieldType;
+			getTextMethod = findGetTextMethod(fieldType);
+			if (getTextMethod == null) {
+				return;
+			}
+			try {
+				// public method of a non-public class is not accessible otherwise
+				getTextMethod.setAccessible(true);
+			} catch (SecurityException e) {
+				// do nothing, invoke will report if it's really inaccessible
+			}
+		}
+
+		private static Method findGetTextMethod(Class<?> fieldType) {
+			try {
+				return fieldType.getMethod(GET_TEXT_METHOD_NAME);
+			} catch (NoSuchMethodException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public String getText(Object field) {
+			if (getTextMethod == null) {
+				throw new RuntimeException(
+						String.format("Control of type %s does not have '%s()' method!",
+								fieldType.getName(), GET_TEXT_METHOD_NAME));
+			}
+			try {
+				return String.valueOf(getTextMethod.invoke(field));
+			} catch (InvocationTargetException e) {
+				throw new RuntimeException(
+						String.format("'%s()' method threw an exception: %s", GET_TEXT_METHOD_NAME, e.getMessage()), e);
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(
+						String.format("'%s()' method enforced Java access control or is inaccessible.", GET_TEXT_METHOD_NAME), e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,273 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IIncrementalValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Validates if field value is one of allowed values, i.e. items of a large vocabulary typed into a Combo.
+ * Value which is not allowed but is a prefix of an allowed one is reported with {@link ValidationStatus#WARNING}
+ * status, since user might not have finished typing yet. Allowed values starting with a prefix could be
+ * listed by {@link #suggest(String, int)}.
+ * <p>
+ * Values are kept in a trie encoded into a few arrays. Every field remembers trie nodes of its previous value,
+ * so when user types or erases a char only that char has to be looked up.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class TrieValidator implements IIncrementalValidator, ICharSequenceValidator, ICostAwareValidator {
+
+	private static final int NO_NODE = -1;
+	private static final int ROOT = 0;
+
+	/** edges of node n are at [edgeStart[n], edgeStart[n + 1]) sorted by their labels */
+	private final int[] edgeStart;
+	private final char[] edgeLabels;
+	private final int[] edgeTargets;
+	/** nodes where allowed values end */
+	private final BitSet terminals;
+	private final int size;
+	private final ValidationResult okResult = new ValidationResult(ValidationStatus.OK, this);
+
+	/**
+	 * @param values allowed values, not <code>null</code>, duplicates and empty values are ignored
+	 * @throws IllegalArgumentException if values or any of them are <code>null</code>
+	 */
+	public TrieValidator(Collection<String> values) {
+		if (values == null) {
+			throw new IllegalArgumentException("Values can't be null!");
+		}
+		String[] sorted = values.toArray(new String[values.size()]);
+		for (String value : sorted) {
+			if (value == null) {
+				throw new IllegalArgumentException("Value can't be null!");
+			}
+		}
+		Arrays.sort(sorted);
+		int count = 0;
+		int totalLength = 0;
+		for (String value : sorted) {
+			if (!value.isEmpty() && (count == 0 || !value.equals(sorted[count - 1]))) {
+				sorted[count++] = value;
+				totalLength += value.length();
+			}
+		}
+		this.size = count;
+
+		// every node is a range of sorted values sharing a prefix, nodes are numbered breadth first
+		// so that edges of every node are contiguous
+		int maxNodes = totalLength + 1;
+		int[] rangeFrom = new int[maxNodes];
+		int[] rangeTo = new int[maxNodes];
+		int[] depths = new int[maxNodes];
+		int[] starts = new int[maxNodes + 1];
+		char[] labels = new char[totalLength];
+		int[] targets = new int[totalLength];
+		BitSet terminalNodes = new BitSet();
+		rangeTo[ROOT] = count;
+		int nodeCount = 1;
+		int edgeCount = 0;
+		for (int node = 0; node < nodeCount; node++) {
+			starts[node] = edgeCount;
+			int from = rangeFrom[node];
+			int depth = depths[node];
+			if (from < rangeTo[node] && sorted[from].length() == depth) {
+				terminalNodes.set(node);
+				from++;
+			}
+			while (from < rangeTo[node]) {
+				char label = sorted[from].charAt(depth);
+				int to = from + 1;
+				while (to < rangeTo[node] && sorted[to].charAt(depth) == label) {
+					to++;
+				}
+				rangeFrom[nodeCount] = from;
+				rangeTo[nodeCount] = to;
+				depths[nodeCount] = depth + 1;
+				labels[edgeCount] = label;
+				targets[edgeCount++] = nodeCount++;
+				from = to;
+			}
+		}
+		starts[nodeCount] = edgeCount;
+		this.edgeStart = Arrays.copyOf(starts, nodeCount + 1);
+		this.edgeLabels = Arrays.copyOf(labels, edgeCount);
+		this.edgeTargets = Arrays.copyOf(targets, edgeCount);
+		this.terminals = terminalNodes;
+	}
+
+	public TrieValidator(String... values) {
+		this(values != null ? Arrays.asList(values) : null);
+	}
+
+	/**
+	 * @return number of allowed values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(String valueToValidate) {
+		if (valueToValidate == null || valueToValidate.isEmpty()) {
+			return okResult;
+		}
+		return createResult(valueToValidate, walk(ROOT, valueToValidate, 0, valueToValidate.length()));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		CharSequence valueToValidate = CharRange.of(value, start, end);
+		if (valueToValidate.length() == 0) {
+			return okResult;
+		}
+		return createResult(valueToValidate, walk(ROOT, valueToValidate, 0, valueToValidate.length()));
+	}
+
+	/**
+	 * @return validator of a single field remembering trie nodes of its previous value
+	 */
+	@Override
+	public IValidator createFieldValidator() {
+		return new FieldCursor();
+	}
+
+	@Override
+	public int getCost() {
+		return DEFAULT_COST;
+	}
+
+	/**
+	 * @param prefix of suggested values, not <code>null</code>
+	 * @param maxCount maximal number of suggested values
+	 * @return allowed values starting with given prefix in alphabetical order, no more than maxCount of them
+	 */
+	public List<String> suggest(String prefix, int maxCount) {
+		if (prefix == null) {
+			throw new IllegalArgumentException("Prefix can't be null!");
+		}
+		List<String> suggestions = new ArrayList<String>();
+		int node = walk(ROOT, prefix, 0, prefix.length());
+		if (node != NO_NODE && maxCount > 0) {
+			collect(node, new StringBuilder(prefix), suggestions, maxCount);
+		}
+		return suggestions;
+	}
+
+	protected String getErrorMessage(String valueToValidate) {
+		return String.format("Value \"%s\" is not allowed", valueToValidate);
+	}
+
+	protected String getIncompleteMessage(String valueToValidate) {
+		return String.format("Value \"%s\" is incomplete", valueToValidate);
+	}
+
+	private void collect(int node, StringBuilder value, List<String> suggestions, int maxCount) {
+		if (terminals.get(node)) {
+			suggestions.add(value.toString());
+		}
+		for (int edge = edgeStart[node]; edge < edgeStart[node + 1] && suggestions.size() < maxCount; edge++) {
+			value.append(edgeLabels[edge]);
+			collect(edgeTargets[edge], value, suggestions, maxCount);
+			value.setLength(value.length() - 1);
+		}
+	}
+
+	private int walk(int node, CharSequence value, int from, int to) {
+		for (int i = from; i < to && node != NO_NODE; i++) {
+			node = child(node, value.charAt(i));
+		}
+		return node;
+	}
+
+	private int child(int node, char label) {
+		int edge = Arrays.binarySearch(edgeLabels, edgeStart[node], edgeStart[node + 1], label);
+		return edge >= 0 ? edgeTargets[edge] : NO_NODE;
+	}
+
+	private ValidationResult createResult(CharSequence valueToValidate, int node) {
+		if (node != NO_NODE && terminals.get(node)) {
+			return okResult;
+		}
+		// chars could change after validation, so message is formatted from their copy
+		final String value = valueToValidate.toString();
+		if (node != NO_NODE) {
+			return ValidationResult.lazy(ValidationStatus.WARNING, new IMessageSupplier() {
+				@Override
+				public String getMessage() {
+					return getIncompleteMessage(value);
+				}
+			}, this);
+		}
+		return ValidationResult.lazy(ValidationStatus.ERROR, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				return getErrorMessage(value);
+			}
+		}, this);
+	}
+
+	/**
+	 * Validates values of a single field keeping trie nodes of every prefix of its previous value,
+	 * so only chars after common prefix of previous and new values are looked up.
+	 */
+	private class FieldCursor implements ICharSequenceValidator {
+
+		private final PreviousValue previousValue = new PreviousValue();
+		/** path[i] is node of the first i chars of previous value, NO_NODE after the first dead end */
+		private int[] path = new int[] {ROOT};
+
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			return validateChars(valueToValidate);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public ValidationResult validate(CharSequence value, int start, int end) {
+			return validateChars(CharRange.of(value, start, end));
+		}
+
+		private ValidationResult validateChars(CharSequence valueToValidate) {
+			if (valueToValidate == null || valueToValidate.length() == 0) {
+				previousValue.clear();
+				return okResult;
+			}
+			int length = valueToValidate.length();
+			// comparing chars of common prefix is still linear, but much cheaper than stepping trie edges
+			int common = previousValue.commonPrefix(valueToValidate);
+			if (path.length <= length) {
+				path = Arrays.copyOf(path, Math.max(length + 1, path.length * 2));
+			}
+			int node = path[common];
+			for (int i = common; i < length; i++) {
+				if (node != NO_NODE) {
+					node = child(node, valueToValidate.charAt(i));
+				}
+				path[i + 1] = node;
+			}
+			previousValue.set(valueToValidate, common);
+			return createResult(valueToValidate, node);
+		}
+	}
+
+}
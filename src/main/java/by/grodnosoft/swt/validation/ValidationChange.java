@@ -0,0 +1,233 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.widgets.Control;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationChangeCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Difference between two subsequent results of a {@link ValidationToolkit.ValidationContext}: fields whose status
+ * or messages changed since previous validation, so that decorations of the rest of fields are not repainted.
+ * <p>
+ * Status of a field is the worst status of its results, messages of results which are not OK are compared
+ * in order. Fields are reported in the order they were set up, the first change reports every field.
+ * Fields missing from {@link ValidationResult#isPartial() partial} results keep their previous status.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class ValidationChange {
+
+	private static final ValidationStatus[] STATUSES = ValidationStatus.values();
+
+	private final ValidationResult result;
+	private final List<Control> changedFields;
+	private final Map<Control, FieldState> states;
+	private final int[] fieldCounts;
+	private final int[] resultCounts;
+
+	ValidationChange(ValidationResult result, List<Control> changedFields, Map<Control, FieldState> states,
+			int[] fieldCounts, int[] resultCounts) {
+		this.result = result;
+		this.changedFields = Collections.unmodifiableList(changedFields);
+		this.states = states;
+		this.fieldCounts = fieldCounts;
+		this.resultCounts = resultCounts;
+	}
+
+	/**
+	 * @return compound result of the whole context
+	 */
+	public ValidationResult getResult() {
+		return result;
+	}
+
+	/**
+	 * @return the worst status of all fields
+	 */
+	public ValidationStatus getStatus() {
+		return result.getStatus();
+	}
+
+	/**
+	 * @return fields whose status or messages changed, in order they were set up
+	 */
+	public List<Control> getChangedFields() {
+		return changedFields;
+	}
+
+	/**
+	 * @return the worst status of results of given field, OK if the field is not validated any more
+	 */
+	public ValidationStatus getStatus(Control field) {
+		FieldState state = states.get(field);
+		return state != null ? state.status : ValidationStatus.OK;
+	}
+
+	/**
+	 * @return results of given field, empty if the field is not validated any more
+	 */
+	public List<ValidationResult> getResults(Control field) {
+		FieldState state = states.get(field);
+		if (state == null) {
+			return Collections.emptyList();
+		}
+		return Collections.unmodifiableList(state.results);
+	}
+
+	/**
+	 * @return number of fields of given status, changed or not
+	 */
+	public int getFieldCount(ValidationStatus status) {
+		return fieldCounts[status.ordinal()];
+	}
+
+	/**
+	 * @return number of results of validators and rules of given status, i.e. to show "2 errors, 1 warning"
+	 *  when a field has several errors
+	 */
+	public int getResultCount(ValidationStatus status) {
+		return resultCounts[status.ordinal()];
+	}
+
+	/**
+	 * Results of a single field and what is compared to find out if it changed
+	 */
+	static final class FieldState {
+
+		private final List<ValidationResult> results = new ArrayList<ValidationResult>(2);
+		private ValidationStatus status = ValidationStatus.OK;
+
+		void add(ValidationResult result) {
+			results.add(result);
+			if (status.compareTo(result.getStatus()) < 0) {
+				status = result.getStatus();
+			}
+		}
+
+		void count(int[] fieldCounts, int[] resultCounts) {
+			fieldCounts[status.ordinal()]++;
+			for (ValidationResult result : results) {
+				resultCounts[result.getStatus().ordinal()]++;
+			}
+		}
+
+		boolean sameAs(FieldState previous) {
+			if (status != previous.status) {
+				return false;
+			}
+			int i = 0;
+			int j = 0;
+			while (true) {
+				i = nextReported(results, i);
+				j = nextReported(previous.results, j);
+				if (i == results.size() || j == previous.results.size()) {
+					return i == results.size() && j == previous.results.size();
+				}
+				ValidationResult result = results.get(i++);
+				ValidationResult previousResult = previous.results.get(j++);
+				if (result.getStatus() != previousResult.getStatus()) {
+					return false;
+				}
+				String message = result.getMessage();
+				String previousMessage = previousResult.getMessage();
+				if (message == null ? previousMessage != null : !message.equals(previousMessage)) {
+					return false;
+				}
+			}
+		}
+
+		/**
+		 * @return index of the first result at or after given one which is not OK
+		 */
+		private static int nextReported(List<ValidationResult> results, int from) {
+			while (from < results.size() && results.get(from).getStatus() == ValidationStatus.OK) {
+				from++;
+			}
+			return from;
+		}
+	}
+
+	/**
+	 * Compares every result of a context with the previous one and notifies change callback
+	 * only if some of the fields changed. Used on UI thread only.
+	 */
+	static final class Tracker implements ValidationCallback {
+
+		private final ValidationChangeCallback callback;
+		private Map<Control, FieldState> previousStates = new IdentityHashMap<Control, FieldState>();
+
+		Tracker(ValidationChangeCallback callback) {
+			this.callback = callback;
+		}
+
+		@Override
+		public void validationDone(ValidationResult result) {
+			ValidationChange change = track(result);
+			if (change != null) {
+				callback.validationChanged(change);
+			}
+		}
+
+		/**
+		 * @return change since previous result or <code>null</code> if no field changed
+		 */
+		ValidationChange track(ValidationResult result) {
+			Map<Control, FieldState> states = new IdentityHashMap<Control, FieldState>();
+			List<Control> fields = new ArrayList<Control>();
+			if (result.isCompound()) {
+				for (ValidationResult childResult : result.getChildren()) {
+					addResult(states, fields, childResult);
+				}
+			} else {
+				addResult(states, fields, result);
+			}
+
+			int[] fieldCounts = new int[STATUSES.length];
+			int[] resultCounts = new int[STATUSES.length];
+			List<Control> changedFields = new ArrayList<Control>();
+			for (Control field : fields) {
+				FieldState state = states.get(field);
+				state.count(fieldCounts, resultCounts);
+				FieldState previousState = previousStates.remove(field);
+				if (previousState == null || !state.sameAs(previousState)) {
+					changedFields.add(field);
+				}
+			}
+			if (result.isPartial()) {
+				// fields left are still being validated, so they keep their previous results
+				for (Map.Entry<Control, FieldState> entry : previousStates.entrySet()) {
+					states.put(entry.getKey(), entry.getValue());
+					entry.getValue().count(fieldCounts, resultCounts);
+				}
+			} else {
+				// fields left are not validated any more
+				changedFields.addAll(previousStates.keySet());
+			}
+			previousStates = states;
+			if (changedFields.isEmpty()) {
+				return null;
+			}
+			return new ValidationChange(result, changedFields, states, fieldCounts, resultCounts);
+		}
+
+		private static void addResult(Map<Control, FieldState> states, List<Control> fields, ValidationResult result) {
+			FieldState state = states.get(result.getField());
+			if (state == null) {
+				state = new FieldState();
+				states.put(result.getField(), state);
+				fields.add(result.getField());
+			}
+			state.add(result);
+		}
+	}
+
+}
@@ -0,0 +1,253 @@
+package by.grodnosoft.swt.validation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.swt.widgets.Control;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationContext;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+
+/**
+ * Optional instrumentation of validators and {@link ValidationContext}s, off by default.
+ * When enabled, every validator call is counted and timed per validator instance (the one referenced
+ * by its results, so field validators of incremental ones are accounted to validators which created them),
+ * every validation of a context is counted and timed from the moment its modified fields start
+ * being validated until its callback returns, and so is every validation of a single field
+ * set up without a context.
+ * When disabled the only overhead is a check of a volatile flag.
+ * <p>
+ * Metrics are available via {@link #getValidatorMetrics()} and {@link #getContextMetrics()}
+ * or via JMX once {@link #registerMBean()} is called. Validators are named by their
+ * <code>toString()</code>, contexts by {@link ValidationContext#setName(String)}, fields by their <code>toString()</code>.
+ * Instrumented validators, contexts and fields are referenced weakly, their metrics are dropped once they are collected.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public final class ValidationMetrics {
+
+	public static final String OBJECT_NAME = "by.grodnosoft.swt.validation:type=ValidationMetrics";
+
+	/**
+	 * JMX view of {@link ValidationMetrics}
+	 */
+	public interface ValidationMetricsMXBean {
+		boolean isEnabled();
+		void setEnabled(boolean enabled);
+		List<MetricsSnapshot> getValidators();
+		List<MetricsSnapshot> getContexts();
+		List<MetricsSnapshot> getFields();
+		void reset();
+	}
+
+	private static volatile boolean enabled;
+	private static final Map<IValidator, MetricsRecorder> validators =
+			Collections.synchronizedMap(new WeakHashMap<IValidator, MetricsRecorder>());
+	private static final Map<ValidationContext, MetricsRecorder> contexts =
+			Collections.synchronizedMap(new WeakHashMap<ValidationContext, MetricsRecorder>());
+	private static final Map<Control, MetricsRecorder> fields =
+			Collections.synchronizedMap(new WeakHashMap<Control, MetricsRecorder>());
+
+	private ValidationMetrics() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turn instrumentation on or off, collected metrics are kept until {@link #reset()}.
+	 */
+	public static void setEnabled(boolean enabled) {
+		ValidationMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Forget all collected metrics.
+	 */
+	public static void reset() {
+		validators.clear();
+		contexts.clear();
+		fields.clear();
+	}
+
+	public static List<MetricsSnapshot> getValidatorMetrics() {
+		List<MetricsSnapshot> snapshots = new ArrayList<MetricsSnapshot>();
+		synchronized (validators) {
+			for (Map.Entry<IValidator, MetricsRecorder> entry : validators.entrySet()) {
+				IValidator validator = entry.getKey();
+				if (validator != null) {
+					snapshots.add(entry.getValue().snapshot(validator.toString()));
+				}
+			}
+		}
+		return snapshots;
+	}
+
+	public static List<MetricsSnapshot> getContextMetrics() {
+		List<MetricsSnapshot> snapshots = new ArrayList<MetricsSnapshot>();
+		synchronized (contexts) {
+			for (Map.Entry<ValidationContext, MetricsRecorder> entry : contexts.entrySet()) {
+				ValidationContext context = entry.getKey();
+				if (context != null) {
+					String name = context.getName() != null ? context.getName() : context.toString();
+					snapshots.add(entry.getValue().snapshot(name));
+				}
+			}
+		}
+		return snapshots;
+	}
+
+	public static List<MetricsSnapshot> getFieldMetrics() {
+		List<MetricsSnapshot> snapshots = new ArrayList<MetricsSnapshot>();
+		synchronized (fields) {
+			for (Map.Entry<Control, MetricsRecorder> entry : fields.entrySet()) {
+				Control field = entry.getKey();
+				if (field != null) {
+					snapshots.add(entry.getValue().snapshot(field.toString()));
+				}
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Register {@link ValidationMetricsMXBean} in platform MBean server under {@link #OBJECT_NAME},
+	 * does nothing if it's already registered.
+	 */
+	public static void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(new MXBeanImpl(), new ObjectName(OBJECT_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			// do nothing, registered already
+		} catch (JMException e) {
+			throw new RuntimeException(String.format("Unable to register %s MBean: %s", OBJECT_NAME, e.getMessage()), e);
+		}
+	}
+
+	public static void unregisterMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+		} catch (InstanceNotFoundException e) {
+			// do nothing, not registered
+		} catch (JMException e) {
+			throw new RuntimeException(String.format("Unable to unregister %s MBean: %s", OBJECT_NAME, e.getMessage()), e);
+		}
+	}
+
+	/**
+	 * Calls validator, timing it if instrumentation is enabled.
+	 */
+	static ValidationResult validate(IValidator validator, CharSequence valueToValidate) {
+		if (!enabled) {
+			return call(validator, valueToValidate);
+		}
+		long start = System.nanoTime();
+		ValidationResult result = call(validator, valueToValidate);
+		long nanos = System.nanoTime() - start;
+		// field validators of incremental ones are accounted to validators which created them
+		IValidator key = result.getValidator() != null ? result.getValidator() : validator;
+		recorderOf(validators, key).record(result.getStatus(), nanos);
+		return result;
+	}
+
+	/**
+	 * Passes chars which are not a {@link String} as they are to validators which could check them,
+	 * other validators get a copy.
+	 */
+	private static ValidationResult call(IValidator validator, CharSequence valueToValidate) {
+		if (valueToValidate == null || valueToValidate instanceof String) {
+			return validator.validate((String) valueToValidate);
+		} else if (validator instanceof ICharSequenceValidator) {
+			return ((ICharSequenceValidator) validator).validate(valueToValidate, 0, valueToValidate.length());
+		}
+		return validator.validate(valueToValidate.toString());
+	}
+
+	/**
+	 * @return start time of a context or field validation to be passed to {@link #recordContext(ValidationContext, ValidationResult, long)}
+	 *  or {@link #recordField(Control, ValidationResult, long)}, <code>0</code> if instrumentation is disabled
+	 */
+	static long startTime() {
+		if (!enabled) {
+			return 0;
+		}
+		long time = System.nanoTime();
+		return time != 0 ? time : 1;
+	}
+
+	static void recordContext(ValidationContext context, ValidationResult result, long startTime) {
+		if (startTime == 0) {
+			return;
+		}
+		long nanos = System.nanoTime() - startTime;
+		recorderOf(contexts, context).record(result.getStatus(), nanos);
+	}
+
+	static void recordField(Control field, ValidationResult result, long startTime) {
+		if (startTime == 0) {
+			return;
+		}
+		long nanos = System.nanoTime() - startTime;
+		recorderOf(fields, field).record(result.getStatus(), nanos);
+	}
+
+	private static <K> MetricsRecorder recorderOf(Map<K, MetricsRecorder> recorders, K key) {
+		synchronized (recorders) {
+			MetricsRecorder recorder = recorders.get(key);
+			if (recorder == null) {
+				recorder = new MetricsRecorder();
+				recorders.put(key, recorder);
+			}
+			return recorder;
+		}
+	}
+
+	private static class MXBeanImpl implements ValidationMetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return ValidationMetrics.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			ValidationMetrics.setEnabled(enabled);
+		}
+
+		@Override
+		public List<MetricsSnapshot> getValidators() {
+			return getValidatorMetrics();
+		}
+
+		@Override
+		public List<MetricsSnapshot> getContexts() {
+			return getContextMetrics();
+		}
+
+		@Override
+		public List<MetricsSnapshot> getFields() {
+			return getFieldMetrics();
+		}
+
+		@Override
+		public void reset() {
+			ValidationMetrics.reset();
+		}
+	}
+
+}
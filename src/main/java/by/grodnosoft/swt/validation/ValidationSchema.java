@@ -0,0 +1,84 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationContext;
+
+/**
+ * Describes validators of named fields in records validated without UI by {@link BulkValidationEngine},
+ * the same way {@link ValidationContext} describes validators of UI fields.
+ * Fields are indexed in order they were set up, records are arrays of values in the same order.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class ValidationSchema {
+
+	private final Map<String, IValidator[]> fieldConfig = new LinkedHashMap<String, IValidator[]>();
+
+	public void setupField(String fieldName, IValidator validator) {
+		setupField(fieldName, new IValidator[] {validator});
+	}
+
+	/**
+	 * @param fieldName not <code>null</code>, field set up again keeps its index
+	 * @param validators called one by one, not <code>null</code> nor empty
+	 * @throws IllegalArgumentException if either fieldName is <code>null</code> or validators is <code>null</code> or empty
+	 */
+	public void setupField(String fieldName, IValidator[] validators) {
+		if (fieldName == null) {
+			throw new IllegalArgumentException("Field name can't be null!");
+		}
+		if (validators == null || validators.length == 0) {
+			throw new IllegalArgumentException("At least one field validator should be specified!");
+		}
+		fieldConfig.put(fieldName, validators.clone());
+	}
+
+	public int getFieldCount() {
+		return fieldConfig.size();
+	}
+
+	public List<String> getFieldNames() {
+		return Collections.unmodifiableList(new ArrayList<String>(fieldConfig.keySet()));
+	}
+
+	/**
+	 * @return index of a field in records, <code>-1</code> if there is no such field
+	 */
+	public int getFieldIndex(String fieldName) {
+		int index = 0;
+		for (String name : fieldConfig.keySet()) {
+			if (name.equals(fieldName)) {
+				return index;
+			}
+			index++;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return values of given named fields ordered as in records, missing ones are <code>null</code>
+	 */
+	public String[] toRecord(Map<String, String> values) {
+		String[] record = new String[fieldConfig.size()];
+		int index = 0;
+		for (String name : fieldConfig.keySet()) {
+			record[index++] = values.get(name);
+		}
+		return record;
+	}
+
+	/**
+	 * @return validators of every field ordered as in records
+	 */
+	IValidator[][] getValidators() {
+		return fieldConfig.values().toArray(new IValidator[fieldConfig.size()][]);
+	}
+
+}
@@ -2,15 +2,28 @@ package by.grodnosoft.swt.validation;
 
 import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Provides utility methods for adding different validators to UI fields
@@ -21,20 +34,94 @@ import java.util.Map;
  */
 public class ValidationToolkit {
 
-    private static final String GET_TEXT_METHOD_NAME = "getText";
-
 	public static final IValidator NON_EMPTY = new NonEmptyValidator();
 	public static final IValidator NUMERIC = new NumericValidator();
 	public static final IValidator EMAIL = new EmailValidator();
 	public static final IValidator PHONE_NUMBER = new PhoneNumberValidator();
 
     /**
-	 * Common interface for all validators
+	 * Common interface for all validators.
+	 * Validators could be called from many threads at once (see {@link BulkValidationEngine}),
+	 * so they should not keep any state between calls.
 	 */
 	public interface IValidator {
 		ValidationResult validate(String valueToValidate);
 	}
 
+	/**
+	 * Validator which checks a range of chars without copying them into a {@link String}, i.e. content
+	 * of a large StyledText read directly from its content model (see {@link IContentAccessor}).
+	 * Char arrays could be validated as well by wrapping them with {@link java.nio.CharBuffer#wrap(char[])}.
+	 * Toolkit passes field content this way only if every validator of the field implements this interface.
+	 */
+	public interface ICharSequenceValidator extends IValidator {
+		/**
+		 * @param value chars to validate, not <code>null</code>, should not be modified while validation runs
+		 *  and could change afterwards, so result should keep a copy of chars its message needs
+		 * @param start index of the first char to validate
+		 * @param end index after the last char to validate
+		 * @throws IndexOutOfBoundsException if range is not within value
+		 */
+		ValidationResult validate(CharSequence value, int start, int end);
+	}
+
+	/**
+	 * Validator which could keep some state between validations of the same field,
+	 * i.e. to validate only text appended since previous validation.
+	 * Toolkit validates every field with a separate field validator created by this one.
+	 */
+	public interface IIncrementalValidator extends IValidator {
+		/**
+		 * @return validator of a single field, results of which reference this validator
+		 */
+		IValidator createFieldValidator();
+	}
+
+	/**
+	 * Validator which knows how expensive it is compared to others, so that {@link ValidatorChain}
+	 * could run cheap validators first. Validators which do not implement it cost {@link #DEFAULT_COST}.
+	 */
+	public interface ICostAwareValidator extends IValidator {
+		/** i.e. checks of emptiness or length */
+		int LOW_COST = 1;
+		/** i.e. parsing of numbers or matching by automaton */
+		int DEFAULT_COST = 10;
+		/** i.e. backtracking regular expressions or lookups */
+		int HIGH_COST = 100;
+
+		/**
+		 * @return relative cost of a single validation, not negative
+		 */
+		int getCost();
+	}
+
+	/**
+	 * Validator of a rule spanning several fields of a {@link ValidationContext}, i.e. "password confirmation
+	 * equals password" or "total equals sum of line items", see {@link ValidationContext#setupRule(ICrossFieldValidator, Control...)}.
+	 * Just like {@link IValidator}s, rules could be called from many threads at once.
+	 */
+	public interface ICrossFieldValidator {
+		/**
+		 * @param values text of fields the rule was set up with, in the same order
+		 */
+		ValidationResult validate(String[] values);
+	}
+
+	/**
+	 * Reads current text of a UI field, see {@link ValidationToolkit#registerTextAccessor(Class, ITextAccessor)}
+	 */
+	public interface ITextAccessor<T> {
+		String getText(T field);
+	}
+
+	/**
+	 * Reads content of a UI field without copying it, i.e. from content model of a large StyledText.
+	 * Content is read by validators on UI thread only, validation in background reads {@link #getText(Object)}.
+	 */
+	public interface IContentAccessor<T> extends ITextAccessor<T> {
+		CharSequence getContent(T field);
+	}
+
 	/**
 	 * Interface for validation callbacks
 	 */
@@ -42,15 +129,53 @@ public class ValidationToolkit {
 		void validationDone(ValidationResult result);
 	}
 
+	/**
+	 * Interface for callbacks notified only when status or messages of some fields of a
+	 * {@link ValidationContext} changed, see {@link ValidationChange}
+	 */
+	public interface ValidationChangeCallback {
+		void validationChanged(ValidationChange change);
+	}
+
 	/**
 	 * Just to distinguish between modify listeners added for validation purposes 
 	 * and other ones which might be added to UI fields somewhere else.  
 	 */
-	private interface ValidationModifyListener extends Listener{ }
+	private interface ValidationModifyListener extends Listener{
+		/**
+		 * Runs validation postponed by debounce delay right now, if there is one
+		 */
+		void flush();
+
+		/**
+		 * Drops validation postponed by debounce delay, called when validation is removed from the field
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Runs validation of a {@link ValidationContext} later on UI thread, backed by {@link Display}
+	 * unless tests replace it, since they have no display.
+	 */
+	interface UIScheduler {
+		/**
+		 * @param delay in milliseconds, -1 to cancel runnable scheduled before
+		 */
+		void timerExec(int delay, Runnable runnable);
+
+		/**
+		 * Could be called from any thread
+		 */
+		void asyncExec(Runnable runnable);
+
+		Control getFocusControl();
+	}
 
 	/**
 	 * Represents result of a validation, could be compound when validating fields
-	 * configured via the same {@link ValidationContext}
+	 * configured via the same {@link ValidationContext}.
+	 * Results returned by validators are never modified by toolkit, so validators could return
+	 * the same result instance every time, i.e. for valid values.
 	 */
 	public static class ValidationResult {
 
@@ -60,11 +185,21 @@ public class ValidationToolkit {
 				return ordinal() < status.ordinal();
 			}
 		}
+
+		/**
+		 * Creates message of a result only when it's requested
+		 */
+		public interface IMessageSupplier {
+			String getMessage();
+		}
 		
 		private ValidationStatus status;
-		private final String message;
+		private String message;
+		private final IMessageSupplier messageSupplier;
 		private final IValidator validator;
-		private Control field;
+		private final Control field;
+		private boolean skipped;
+		private boolean partial;
 		private Collection<ValidationResult> childValidationResults;
 		
 		public ValidationResult(ValidationStatus status) {
@@ -76,10 +211,46 @@ public class ValidationToolkit {
 		}
 
 		public ValidationResult(ValidationStatus status, String message, IValidator validator) {
+			this(status, message, null, validator, null);
+		}
+
+		private ValidationResult(ValidationStatus status, String message, IMessageSupplier messageSupplier,
+				IValidator validator, Control field) {
 			this.status = status;
 			this.message = message;
+			this.messageSupplier = messageSupplier;
 			this.validator = validator;
-			this.childValidationResults = new ArrayList<ValidationResult>();
+			this.field = field;
+		}
+
+		/**
+		 * @param messageSupplier called at most once when message is requested for the first time
+		 * @return result which creates its message only when it's requested
+		 */
+		public static ValidationResult lazy(ValidationStatus status, IMessageSupplier messageSupplier,
+				IValidator validator) {
+			return new ValidationResult(status, null, messageSupplier, validator, null);
+		}
+
+		/**
+		 * @return result marking given validator as not run, i.e. by {@link ValidatorChain}, its status is OK
+		 */
+		public static ValidationResult skipped(IValidator validator) {
+			ValidationResult result = new ValidationResult(ValidationStatus.OK, validator);
+			result.skipped = true;
+			return result;
+		}
+
+		/**
+		 * @return supplier formatting message with {@link String#format(String, Object...)} when it's requested
+		 */
+		public static IMessageSupplier lazyFormat(final String format, final Object... args) {
+			return new IMessageSupplier() {
+				@Override
+				public String getMessage() {
+					return String.format(format, args);
+				}
+			};
 		}
 		
 		public IValidator getValidator() {
@@ -95,26 +266,72 @@ public class ValidationToolkit {
 		}
 		
 		public String getMessage() {
+			if (message == null && messageSupplier != null) {
+				message = messageSupplier.getMessage();
+			}
 			return message;
 		}
 		
 		public Collection<ValidationResult> getChildren() {
+			if (childValidationResults == null) {
+				return Collections.emptyList();
+			}
 			return childValidationResults;
 		}
 		
 		public boolean isCompound() {
-			return !childValidationResults.isEmpty();
+			return childValidationResults != null && !childValidationResults.isEmpty();
+		}
+
+		/**
+		 * @return <code>true</code> if validator of this result was not run at all
+		 */
+		public boolean isSkipped() {
+			return skipped;
 		}
 		
+		/**
+		 * @return <code>true</code> if this is a result of a {@link ValidationContext} which is still validating
+		 *  some of its fields in batches (see {@link ValidationContext#setTimeSlice(int)}), results of those fields
+		 *  are missing and a complete result follows
+		 */
+		public boolean isPartial() {
+			return partial;
+		}
+
 		private void addChildResult(ValidationResult result) {
-			if (getStatus().lessThan(result.getStatus())) {
+			addChildResult(result, true);
+		}
+
+		/**
+		 * @param updateStatus whether status of this result should become the worst of its children
+		 */
+		void addChildResult(ValidationResult result, boolean updateStatus) {
+			if (updateStatus && getStatus().lessThan(result.getStatus())) {
 				this.status = result.getStatus();
 			}
+			if (childValidationResults == null) {
+				childValidationResults = new ArrayList<ValidationResult>();
+			}
 			this.childValidationResults.add(result);
 		}
 		
-		private void setField(Control field) {
-			this.field = field;
+		/**
+		 * @return result for given field (children included), a copy if this one is for another field
+		 */
+		private ValidationResult withField(Control field) {
+			if (this.field == field) {
+				return this;
+			}
+			ValidationResult result = new ValidationResult(status, message, messageSupplier, validator, field);
+			result.skipped = skipped;
+			if (childValidationResults != null) {
+				result.childValidationResults = new ArrayList<ValidationResult>(childValidationResults.size());
+				for (ValidationResult childResult : childValidationResults) {
+					result.childValidationResults.add(childResult.withField(field));
+				}
+			}
+			return result;
 		}
 	}
 
@@ -126,14 +343,73 @@ public class ValidationToolkit {
 	public static class ValidationContext {
 		
 		private ValidationCallback callback;
+		/** validators of every field in order fields were set up */
 		private Map<Control, IValidator[]> fieldConfig;
+		/** incremented on every validation of a field, so that outdated asynchronous results could be dropped */
+		private Map<Control, AtomicInteger> fieldVersions;
+		/** rules spanning several fields in order they were set up */
+		private final List<FieldRule> fieldRules = new ArrayList<FieldRule>();
+		/** configuration frozen when validation is set up, replaced if fields are set up afterwards */
+		private ExecutionPlan plan;
+		private boolean planOutdated;
+		/** validation is set up, so fields set up from now on get listeners right away */
+		private boolean listening;
+		private Executor executor;
+		/** validation submitted to executor and not delivered yet, there is at most one */
+		private boolean asyncRunning;
+		private String name;
+		private int debounceDelay;
+		private UIScheduler scheduler;
+		private boolean validationScheduled;
+		private final Runnable scheduledValidation = new Runnable() {
+			@Override
+			public void run() {
+				validationScheduled = false;
+				validatePending(true);
+			}
+		};
+		private int timeSlice;
+		/** fields modified by a burst of events are validated together once the burst is over */
+		private boolean burstScheduled;
+		private final Runnable burstValidation = new Runnable() {
+			@Override
+			public void run() {
+				burstScheduled = false;
+				validatePending(true);
+			}
+		};
+		/** fields left to validate in batches, batches stop once this is reset */
+		private boolean batchesPending;
+		/** slot to continue batch validation from */
+		private int batchCursor;
+		private final Runnable batchValidation = new Runnable() {
+			@Override
+			public void run() {
+				validateBatch();
+			}
+		};
 
 		public ValidationContext(ValidationCallback callback) {
 			if (callback == null) {
 				throw new IllegalArgumentException("Callback can't be null!");
 			}
 			this.callback = callback;
-			this.fieldConfig = new HashMap<Control, IValidator[]>();
+			this.fieldConfig = new LinkedHashMap<Control, IValidator[]>();
+			this.fieldVersions = new HashMap<Control, AtomicInteger>();
+		}
+
+		/**
+		 * Creates context which notifies given callback only about fields whose status or messages changed
+		 * since previous validation, it's not notified at all if nothing changed.
+		 *
+		 * @param changeCallback can't be <code>null</code>
+		 * @throws IllegalArgumentException if changeCallback is <code>null</code>
+		 */
+		public static ValidationContext withChangeCallback(ValidationChangeCallback changeCallback) {
+			if (changeCallback == null) {
+				throw new IllegalArgumentException("Callback can't be null!");
+			}
+			return new ValidationContext(new ValidationChange.Tracker(changeCallback));
 		}
 
 		public void setupField(Control field, IValidator validator) {
@@ -144,7 +420,7 @@ public class ValidationToolkit {
 			if (field == null) {
 				throw new IllegalArgumentException("Field can't be null!");
 			}
-			fieldConfig.put(field, validators);
+			configureField(field, validators);
 		}
 
 		public void setupFields(Control[] fields, IValidator validator) {
@@ -153,7 +429,929 @@ public class ValidationToolkit {
 
 		public void setupFields(Control[] fields, IValidator[] validators) {
 			for (Control field : fields) {
-				fieldConfig.put(field, validators);
+				configureField(field, validators);
+			}
+		}
+
+		/**
+		 * Setup a rule spanning several fields, i.e. "end date is after start date". When a field is modified,
+		 * only validators of that field and rules reading it are run again.
+		 * Result of the rule is reported for the first of its fields.
+		 * Fields which are not set up yet are added to this context without validators of their own.
+		 *
+		 * @param validator rule to run with text of given fields, not <code>null</code>
+		 * @param fields read by the rule, their text is passed to it in the same order, not <code>null</code> nor empty
+		 * @throws IllegalArgumentException if validator is <code>null</code> or fields are <code>null</code>,
+		 *  empty or contain <code>null</code>
+		 */
+		public void setupRule(ICrossFieldValidator validator, Control... fields) {
+			if (validator == null) {
+				throw new IllegalArgumentException("Validator can't be null!");
+			}
+			if (fields == null || fields.length == 0) {
+				throw new IllegalArgumentException("At least one field should be specified!");
+			}
+			for (Control field : fields) {
+				if (field == null) {
+					throw new IllegalArgumentException("Field can't be null!");
+				}
+			}
+			for (Control field : fields) {
+				if (!fieldConfig.containsKey(field)) {
+					configureField(field, new IValidator[0]);
+				}
+			}
+			fieldRules.add(new FieldRule(validator, fields.clone()));
+			if (plan != null) {
+				planOutdated = true;
+			}
+		}
+
+		private void configureField(Control field, IValidator[] validators) {
+			fieldConfig.put(field, createFieldValidators(validators));
+			AtomicInteger version = fieldVersions.get(field);
+			if (version == null) {
+				fieldVersions.put(field, new AtomicInteger());
+				if (listening) {
+					// new field takes the last slot of the next plan
+					addContextListener(this, field, fieldConfig.size() - 1);
+				}
+			} else {
+				version.incrementAndGet();
+			}
+			if (plan != null) {
+				int slot = plan.slotOf(field, -1);
+				if (slot >= 0) {
+					plan.validated[slot] = false;
+				}
+				planOutdated = true;
+			}
+		}
+
+		/**
+		 * @param name of this context in {@link ValidationMetrics}, could be <code>null</code>
+		 */
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Run validators on given executor instead of UI thread. Text of modified fields is read on
+		 * UI thread and validated in background, results are delivered to callback on UI thread
+		 * via {@link Display#asyncExec(Runnable)}. Results for text which was modified again in the
+		 * meantime are dropped, so callback is only called with results of the latest text.
+		 * Validators of the same field are never run concurrently, though validators
+		 * shared between fields should be thread-safe.
+		 * <p>
+		 * Context submits one validation at a time, fields modified while it runs are validated by the next one,
+		 * so however fast user types the executor is not flooded. Executor should still be bounded,
+		 * i.e. a fixed thread pool shared by contexts. Validation rejected by executor is run on UI thread.
+		 * 
+		 * @param executor to run validators on, <code>null</code> (default) to validate on UI thread
+		 */
+		public void setExecutor(Executor executor) {
+			this.executor = executor;
+		}
+
+		public Executor getExecutor() {
+			return executor;
+		}
+
+		/**
+		 * Postpone validation until fields are not modified for given time, so that a burst of
+		 * modifications (fast typing, pasting, programmatic changes) results in a single validation
+		 * and a single callback call. Postponed validation is also run when a field loses focus
+		 * or {@link #flush()} is called. Should be set before validation is set up, fields are flushed on
+		 * focus loss only if debounce delay was set by then.
+		 * 
+		 * @param debounceDelay in milliseconds, <code>0</code> (default) to validate on every modification
+		 * @throws IllegalArgumentException if debounceDelay is negative
+		 */
+		public void setDebounceDelay(int debounceDelay) {
+			if (debounceDelay < 0) {
+				throw new IllegalArgumentException("Debounce delay can't be negative!");
+			}
+			this.debounceDelay = debounceDelay;
+		}
+
+		public int getDebounceDelay() {
+			return debounceDelay;
+		}
+
+		/**
+		 * Validate many fields modified at once, i.e. when a record is loaded into a large form, without
+		 * freezing UI. Modifications are not validated on every Modify event but once pending events are
+		 * processed (or debounce delay passes). Then focused field (or the first modified one, if focused one
+		 * was not modified) is validated right away, the rest of fields are validated in batches run via
+		 * {@link Display#asyncExec(Runnable)}, every batch takes about given time. Callback gets a {@link ValidationResult#isPartial() partial}
+		 * result after every batch and a complete one after the last batch.
+		 * Has no effect on validation run on {@link #setExecutor(Executor) executor}.
+		 *
+		 * @param timeSlice in milliseconds, <code>0</code> (default) to validate all modified fields at once
+		 * @throws IllegalArgumentException if timeSlice is negative
+		 */
+		public void setTimeSlice(int timeSlice) {
+			if (timeSlice < 0) {
+				throw new IllegalArgumentException("Time slice can't be negative!");
+			}
+			this.timeSlice = timeSlice;
+		}
+
+		public int getTimeSlice() {
+			return timeSlice;
+		}
+
+		/**
+		 * Validates every field and rule again, i.e. after validators changed their configuration.
+		 * Fields are validated in batches if {@link #setTimeSlice(int)} is set.
+		 * Should be called from UI thread after validation is set up.
+		 */
+		public void revalidate() {
+			if (plan == null) {
+				return;
+			}
+			ExecutionPlan currentPlan = getPlan();
+			for (int slot = 0; slot < currentPlan.fields.length; slot++) {
+				currentPlan.markModified(slot);
+			}
+			validateModifiedFields(currentPlan, true);
+		}
+
+		/**
+		 * Validates fields modified since last validation right now, i.e. before form is submitted,
+		 * instead of waiting for debounce delay to pass or for batches to be run.
+		 * Does nothing if there are no such fields. Should be called from UI thread.
+		 */
+		public void flush() {
+			validatePending(false);
+		}
+
+		/**
+		 * @param allowBatches whether fields could be validated in batches, otherwise fields left
+		 *  by pending batches are validated too
+		 */
+		private void validatePending(boolean allowBatches) {
+			if (plan == null) {
+				return;
+			}
+			ExecutionPlan currentPlan = getPlan();
+			if (currentPlan.modifiedCount == 0 && (allowBatches || !batchesPending)) {
+				return;
+			}
+			cancelScheduledValidation();
+			if (!allowBatches) {
+				batchesPending = false;
+			}
+			validateModifiedFields(currentPlan, allowBatches);
+		}
+
+		private void cancelScheduledValidation() {
+			if (validationScheduled) {
+				getScheduler().timerExec(-1, scheduledValidation);
+				validationScheduled = false;
+			}
+		}
+
+		/**
+		 * Replaces scheduler backed by display of UI thread
+		 */
+		void setScheduler(UIScheduler scheduler) {
+			this.scheduler = scheduler;
+		}
+
+		private UIScheduler getScheduler() {
+			if (scheduler == null) {
+				scheduler = new DisplayScheduler(Display.getCurrent());
+			}
+			return scheduler;
+		}
+
+		/**
+		 * @return configuration of fields frozen into an execution plan, planned again if fields were set up since
+		 */
+		private ExecutionPlan getPlan() {
+			if (plan == null || planOutdated) {
+				plan = new ExecutionPlan(fieldConfig, fieldVersions, fieldRules, plan);
+				planOutdated = false;
+			}
+			return plan;
+		}
+
+		/**
+		 * Called by Modify listener of the field
+		 *
+		 * @param slotHint slot the field had when its listener was added
+		 */
+		void fieldModified(Control field, int slotHint) {
+			ExecutionPlan currentPlan = getPlan();
+			int slot = currentPlan.slotOf(field, slotHint);
+			if (slot < 0) {
+				return;
+			}
+			currentPlan.markModified(slot);
+			if (debounceDelay == 0 && timeSlice > 0 && executor == null) {
+				// Modify events sent at once, i.e. when a record is loaded, are validated after the last of them
+				if (!burstScheduled) {
+					burstScheduled = true;
+					getScheduler().asyncExec(burstValidation);
+				}
+				return;
+			}
+			if (debounceDelay == 0) {
+				validateModifiedFields(currentPlan, true);
+				return;
+			}
+			// rescheduling already scheduled runnable restarts its timer
+			validationScheduled = true;
+			getScheduler().timerExec(debounceDelay, scheduledValidation);
+		}
+
+		/**
+		 * Called when validation is removed from the field, its pending modification is dropped
+		 */
+		void fieldRemoved(Control field) {
+			if (plan == null) {
+				return;
+			}
+			ExecutionPlan currentPlan = getPlan();
+			int slot = currentPlan.slotOf(field, -1);
+			if (slot >= 0) {
+				currentPlan.unmarkModified(slot);
+			}
+			if (currentPlan.modifiedCount == 0) {
+				cancelScheduledValidation();
+			}
+		}
+
+		/**
+		 * Validates modified fields and rules reading them and notifies callback, either right now
+		 * or when asynchronous validation is done.
+		 *
+		 * @param allowBatches whether all but one of modified fields could be left for batches
+		 */
+		private void validateModifiedFields(ExecutionPlan plan, boolean allowBatches) {
+			final long startTime = ValidationMetrics.startTime();
+			if (executor == null) {
+				int immediateSlot = allowBatches && timeSlice > 0 && plan.modifiedCount > 1 ? focusedSlot(plan) : -1;
+				boolean deferred = false;
+				for (int i = 0; i < plan.modifiedCount; i++) {
+					int slot = plan.modifiedSlots[i];
+					plan.modified[slot] = false;
+					if (immediateSlot >= 0 && slot != immediateSlot) {
+						plan.validated[slot] = false;
+						deferred = true;
+					} else if (!plan.fields[slot].isDisposed()) {
+						validateField(plan, slot);
+					}
+					plan.markDependentRules(slot);
+				}
+				plan.modifiedCount = 0;
+				for (int i = 0; i < plan.dirtyRuleCount; i++) {
+					int rule = plan.dirtyRules[i];
+					plan.ruleDirty[rule] = false;
+					validateRule(plan, rule);
+				}
+				plan.dirtyRuleCount = 0;
+				if (deferred) {
+					scheduleBatches();
+				}
+				notifyCallback(buildResult(plan, !batchesPending), startTime);
+				return;
+			}
+			if (asyncRunning) {
+				// modifications are left for the next validation submitted when this one is delivered
+				return;
+			}
+			final List<FieldSnapshot> snapshots = new ArrayList<FieldSnapshot>();
+			// fields and rules never validated before are validated in background too
+			boolean[] snapshotTaken = plan.allValidated ? null : new boolean[plan.fields.length];
+			for (int i = 0; i < plan.modifiedCount; i++) {
+				int slot = plan.modifiedSlots[i];
+				plan.modified[slot] = false;
+				if (!plan.fields[slot].isDisposed()) {
+					snapshots.add(new FieldSnapshot(plan, slot));
+					if (snapshotTaken != null) {
+						snapshotTaken[slot] = true;
+					}
+				}
+				plan.markDependentRules(slot);
+			}
+			plan.modifiedCount = 0;
+			final List<RuleSnapshot> ruleSnapshots = new ArrayList<RuleSnapshot>();
+			boolean[] ruleSnapshotTaken = plan.allValidated ? null : new boolean[plan.rules.length];
+			for (int i = 0; i < plan.dirtyRuleCount; i++) {
+				int rule = plan.dirtyRules[i];
+				plan.ruleDirty[rule] = false;
+				if (plan.isRuleReadable(rule)) {
+					ruleSnapshots.add(new RuleSnapshot(plan, rule));
+					if (ruleSnapshotTaken != null) {
+						ruleSnapshotTaken[rule] = true;
+					}
+				}
+			}
+			plan.dirtyRuleCount = 0;
+			if (!plan.allValidated) {
+				for (int slot = 0; slot < plan.fields.length; slot++) {
+					if (!plan.validated[slot] && !plan.fields[slot].isDisposed() && !snapshotTaken[slot]) {
+						snapshots.add(new FieldSnapshot(plan, slot));
+					}
+				}
+				for (int rule = 0; rule < plan.rules.length; rule++) {
+					if (!plan.ruleValidated[rule] && plan.isRuleReadable(rule) && !ruleSnapshotTaken[rule]) {
+						ruleSnapshots.add(new RuleSnapshot(plan, rule));
+					}
+				}
+			}
+			final UIScheduler uiScheduler = getScheduler();
+			final Runnable delivery = new Runnable() {
+				@Override
+				public void run() {
+					deliverResults(snapshots, ruleSnapshots, startTime);
+				}
+			};
+			asyncRunning = true;
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						validateSnapshots(snapshots, ruleSnapshots);
+						uiScheduler.asyncExec(delivery);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				validateSnapshots(snapshots, ruleSnapshots);
+				delivery.run();
+			}
+		}
+
+		/**
+		 * @return slot of focused field if it was modified, slot of the first modified field otherwise
+		 */
+		private int focusedSlot(ExecutionPlan plan) {
+			Control focusControl = getScheduler().getFocusControl();
+			int slot = focusControl != null ? plan.slotOf(focusControl, -1) : -1;
+			return slot >= 0 && plan.modified[slot] ? slot : plan.modifiedSlots[0];
+		}
+
+		private void scheduleBatches() {
+			batchCursor = 0;
+			if (batchesPending) {
+				return;
+			}
+			batchesPending = true;
+			getScheduler().asyncExec(batchValidation);
+		}
+
+		/**
+		 * Validates fields left for batches until time slice passes, at least one field is validated.
+		 * Callback gets partial result unless it was the last batch.
+		 */
+		private void validateBatch() {
+			if (!batchesPending) {
+				return;
+			}
+			long startTime = ValidationMetrics.startTime();
+			ExecutionPlan currentPlan = getPlan();
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeSlice);
+			while (batchCursor < currentPlan.fields.length) {
+				int slot = batchCursor++;
+				if (!currentPlan.validated[slot] && !currentPlan.fields[slot].isDisposed()) {
+					validateField(currentPlan, slot);
+					if (System.nanoTime() - deadline >= 0) {
+						break;
+					}
+				}
+			}
+			if (batchCursor >= currentPlan.fields.length) {
+				batchesPending = false;
+			} else {
+				getScheduler().asyncExec(batchValidation);
+			}
+			notifyCallback(buildResult(currentPlan, !batchesPending), startTime);
+		}
+
+		private static void validateSnapshots(List<FieldSnapshot> snapshots, List<RuleSnapshot> ruleSnapshots) {
+			for (FieldSnapshot snapshot : snapshots) {
+				snapshot.validate();
+			}
+			for (RuleSnapshot snapshot : ruleSnapshots) {
+				snapshot.validate();
+			}
+		}
+
+		/**
+		 * Stores results of asynchronous validation which are still up to date and notifies callback.
+		 * If some fields were modified in the meantime or results of some fields are outdated, i.e. they were
+		 * set up again, next validation is submitted instead and callback is notified when it's delivered.
+		 * Nothing is validated on UI thread here as long as executor is set.
+		 * Validators which threw an exception are reported with error results, the first exception
+		 * is thrown only after results are stored and callback is notified.
+		 */
+		private void deliverResults(List<FieldSnapshot> snapshots, List<RuleSnapshot> ruleSnapshots, long startTime) {
+			asyncRunning = false;
+			RuntimeException failure = null;
+			ExecutionPlan currentPlan = getPlan();
+			for (FieldSnapshot snapshot : snapshots) {
+				int slot = currentPlan.slotOf(snapshot.field, snapshot.index);
+				if (snapshot.field.isDisposed() || slot < 0) {
+					continue;
+				}
+				if (!snapshot.isCurrent()) {
+					// validated since on UI thread or set up again, then it's not validated in current plan
+					continue;
+				}
+				if (failure == null) {
+					failure = snapshot.failure;
+				}
+				System.arraycopy(snapshot.rawResults, 0, currentPlan.rawResults, currentPlan.sliceStarts[slot],
+						snapshot.rawResults.length);
+				System.arraycopy(snapshot.results, 0, currentPlan.results, currentPlan.sliceStarts[slot],
+						snapshot.results.length);
+				currentPlan.validated[slot] = true;
+			}
+			for (RuleSnapshot snapshot : ruleSnapshots) {
+				int rule = currentPlan.ruleOf(snapshot.rule, snapshot.index);
+				if (rule < 0) {
+					continue;
+				}
+				if (!snapshot.isCurrent()) {
+					continue;
+				}
+				if (failure == null) {
+					failure = snapshot.failure;
+				}
+				currentPlan.ruleResults[rule] = snapshot.result;
+				currentPlan.ruleValidated[rule] = true;
+			}
+			if (currentPlan.modifiedCount > 0 || currentPlan.dirtyRuleCount > 0 || hasUnvalidated(currentPlan)) {
+				validateModifiedFields(currentPlan, true);
+			} else {
+				notifyCallback(buildResult(currentPlan, true), startTime);
+			}
+			if (failure != null) {
+				// failed validators are reported as errors, exception is passed to UI thread as if they were run there
+				throw failure;
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if some fields or rules which could be validated were not validated yet
+		 */
+		private static boolean hasUnvalidated(ExecutionPlan plan) {
+			if (plan.allValidated) {
+				return false;
+			}
+			for (int slot = 0; slot < plan.fields.length; slot++) {
+				if (!plan.validated[slot] && !plan.fields[slot].isDisposed()) {
+					return true;
+				}
+			}
+			for (int rule = 0; rule < plan.rules.length; rule++) {
+				if (!plan.ruleValidated[rule] && plan.isRuleReadable(rule)) {
+					return true;
+				}
+			}
+			plan.allValidated = true;
+			return false;
+		}
+
+		private void notifyCallback(ValidationResult result, long startTime) {
+			callback.validationDone(result);
+			ValidationMetrics.recordContext(this, result, startTime);
+		}
+
+		/**
+		 * Runs validators of a single field and keeps their results
+		 * until the field is modified again.
+		 */
+		private static void validateField(ExecutionPlan plan, int slot) {
+			AtomicInteger version = plan.versions[slot];
+			version.incrementAndGet();
+			int from = plan.sliceStarts[slot];
+			int to = plan.sliceStarts[slot + 1];
+			if (from < to) {
+				Control field = plan.fields[slot];
+				CharSequence text = getContentFromField(field, plan.validators, from, to);
+				// field validators might keep state, i.e. incremental ones, version of the field guards them
+				synchronized (version) {
+					runValidators(plan.validators, from, to, field, text, plan.rawResults, plan.results, from);
+				}
+			}
+			plan.validated[slot] = true;
+		}
+
+		/**
+		 * Runs validators from given range, their results are stored to given arrays starting from given offset.
+		 * Result of a validator is copied for the field only if it's not the one returned last time,
+		 * so shared results of valid values are not copied on every validation.
+		 *
+		 * @param rawResults results returned by validators last time, replaced with the new ones
+		 * @param results results of the field
+		 */
+		private static void runValidators(IValidator[] validators, int from, int to, Control field, CharSequence text,
+				ValidationResult[] rawResults, ValidationResult[] results, int offset) {
+			for (int i = from; i < to; i++) {
+				int index = offset + i - from;
+				ValidationResult rawResult = ValidationMetrics.validate(validators[i], text);
+				if (rawResult != rawResults[index] || results[index] == null) {
+					rawResults[index] = rawResult;
+					results[index] = rawResult.withField(field);
+				}
+			}
+		}
+
+		/**
+		 * Runs a rule with text of its fields and keeps its result until some of the fields is modified again.
+		 * Rule is not run if some of its fields is disposed.
+		 */
+		private static void validateRule(ExecutionPlan plan, int rule) {
+			if (!plan.isRuleReadable(rule)) {
+				return;
+			}
+			FieldRule fieldRule = plan.rules[rule];
+			fieldRule.version.incrementAndGet();
+			plan.ruleResults[rule] = fieldRule.validate(plan.readRuleValues(rule));
+			plan.ruleValidated[rule] = true;
+		}
+
+		/**
+		 * Builds compound result of the whole context from results of fields in order they were set up
+		 * followed by results of rules in order they were set up.
+		 * Fields and rules which were never validated before are validated here, so the first
+		 * call costs a full validation while subsequent ones only aggregate.
+		 * Aggregation is not incremental: cached results of every field and rule are walked on every
+		 * call, i.e. on every keystroke, even if a single field was validated.
+		 *
+		 * @param complete whether fields which are not validated should be validated, otherwise
+		 *  they are left out of partial result
+		 */
+		private static ValidationResult buildResult(ExecutionPlan plan, boolean complete) {
+			ValidationResult result = new ValidationResult(ValidationStatus.OK);
+			for (int slot = 0; slot < plan.fields.length; slot++) {
+				if (!plan.validated[slot]) {
+					if (plan.fields[slot].isDisposed()) {
+						continue;
+					}
+					if (!complete) {
+						result.partial = true;
+						continue;
+					}
+					validateField(plan, slot);
+				}
+				for (int i = plan.sliceStarts[slot]; i < plan.sliceStarts[slot + 1]; i++) {
+					result.addChildResult(plan.results[i]);
+				}
+			}
+			for (int rule = 0; rule < plan.rules.length; rule++) {
+				if (!plan.ruleValidated[rule]) {
+					validateRule(plan, rule);
+				}
+				if (plan.ruleResults[rule] != null) {
+					result.addChildResult(plan.ruleResults[rule]);
+				}
+			}
+			if (complete) {
+				plan.allValidated = true;
+			}
+			return result;
+		}
+
+		/**
+		 * Rule set up with fields it reads
+		 */
+		private static final class FieldRule {
+
+			private final ICrossFieldValidator validator;
+			private final Control[] fields;
+			/** incremented on every validation of the rule, so that outdated asynchronous results could be dropped */
+			private final AtomicInteger version = new AtomicInteger();
+
+			FieldRule(ICrossFieldValidator validator, Control[] fields) {
+				this.validator = validator;
+				this.fields = fields;
+			}
+
+			/**
+			 * @return result of the rule reported for its first field
+			 */
+			ValidationResult validate(String[] values) {
+				return validator.validate(values).withField(fields[0]);
+			}
+		}
+
+		/**
+		 * Configuration of fields frozen into parallel arrays indexed by slot of a field, slots follow order
+		 * in which fields were set up. Validators of a field and their results occupy the same slice
+		 * of validators and results arrays. Rules are indexed the same way and every field knows rules
+		 * reading it, so a modification touches only the field and its dependent rules.
+		 * Plan is used on UI thread only.
+		 */
+		private static final class ExecutionPlan {
+
+			private final Control[] fields;
+			/** slice of field in slot s is [sliceStarts[s], sliceStarts[s + 1]) */
+			private final int[] sliceStarts;
+			private final IValidator[] validators;
+			/** results as returned by validators, their copies for fields are kept in results */
+			private final ValidationResult[] rawResults;
+			private final ValidationResult[] results;
+			private final boolean[] validated;
+			private final AtomicInteger[] versions;
+			private final boolean[] modified;
+			/** slots of modified fields in order of modification */
+			private final int[] modifiedSlots;
+			private int modifiedCount;
+			private final Map<Control, Integer> slots;
+
+			private final FieldRule[] rules;
+			/** slots of fields read by every rule */
+			private final int[][] ruleSlots;
+			/** rules reading field in slot s are dependentRules[dependentStarts[s]..dependentStarts[s + 1]) */
+			private final int[] dependentStarts;
+			private final int[] dependentRules;
+			private final ValidationResult[] ruleResults;
+			private final boolean[] ruleValidated;
+			private final boolean[] ruleDirty;
+			/** rules to validate again in order they became dirty */
+			private final int[] dirtyRules;
+			private int dirtyRuleCount;
+			/** every field and rule has been validated at least once */
+			private boolean allValidated;
+
+			/**
+			 * @param previous plan to take results and modifications of fields and rules from, could be <code>null</code>
+			 */
+			ExecutionPlan(Map<Control, IValidator[]> fieldConfig, Map<Control, AtomicInteger> fieldVersions,
+					List<FieldRule> fieldRules, ExecutionPlan previous) {
+				int fieldCount = fieldConfig.size();
+				int validatorCount = 0;
+				for (IValidator[] fieldValidators : fieldConfig.values()) {
+					validatorCount += fieldValidators.length;
+				}
+				fields = new Control[fieldCount];
+				sliceStarts = new int[fieldCount + 1];
+				validators = new IValidator[validatorCount];
+				rawResults = new ValidationResult[validatorCount];
+				results = new ValidationResult[validatorCount];
+				validated = new boolean[fieldCount];
+				versions = new AtomicInteger[fieldCount];
+				modified = new boolean[fieldCount];
+				modifiedSlots = new int[fieldCount];
+				slots = new IdentityHashMap<Control, Integer>(fieldCount);
+				int slot = 0;
+				int offset = 0;
+				for (Map.Entry<Control, IValidator[]> entry : fieldConfig.entrySet()) {
+					Control field = entry.getKey();
+					IValidator[] fieldValidators = entry.getValue();
+					fields[slot] = field;
+					sliceStarts[slot] = offset;
+					System.arraycopy(fieldValidators, 0, validators, offset, fieldValidators.length);
+					versions[slot] = fieldVersions.get(field);
+					slots.put(field, slot);
+					int previousSlot = previous != null ? previous.slotOf(field, -1) : -1;
+					if (previousSlot >= 0) {
+						if (previous.modified[previousSlot]) {
+							markModified(slot);
+						}
+						// fields set up again are not validated in previous plan
+						if (previous.validated[previousSlot]) {
+							System.arraycopy(previous.rawResults, previous.sliceStarts[previousSlot],
+									rawResults, offset, fieldValidators.length);
+							System.arraycopy(previous.results, previous.sliceStarts[previousSlot],
+									results, offset, fieldValidators.length);
+							validated[slot] = true;
+						}
+					}
+					offset += fieldValidators.length;
+					slot++;
+				}
+				sliceStarts[fieldCount] = offset;
+
+				int ruleCount = fieldRules.size();
+				rules = fieldRules.toArray(new FieldRule[ruleCount]);
+				ruleSlots = new int[ruleCount][];
+				ruleResults = new ValidationResult[ruleCount];
+				ruleValidated = new boolean[ruleCount];
+				ruleDirty = new boolean[ruleCount];
+				dirtyRules = new int[ruleCount];
+				dependentStarts = new int[fieldCount + 1];
+				int dependencyCount = 0;
+				for (int rule = 0; rule < ruleCount; rule++) {
+					Control[] ruleFields = rules[rule].fields;
+					ruleSlots[rule] = new int[ruleFields.length];
+					for (int i = 0; i < ruleFields.length; i++) {
+						ruleSlots[rule][i] = slots.get(ruleFields[i]);
+						dependentStarts[ruleSlots[rule][i] + 1]++;
+						dependencyCount++;
+					}
+					int previousRule = previous != null ? previous.ruleOf(rules[rule], -1) : -1;
+					if (previousRule >= 0) {
+						ruleResults[rule] = previous.ruleResults[previousRule];
+						ruleValidated[rule] = previous.ruleValidated[previousRule];
+						if (previous.ruleDirty[previousRule]) {
+							markDirty(rule);
+						}
+					}
+				}
+				for (int i = 0; i < fieldCount; i++) {
+					dependentStarts[i + 1] += dependentStarts[i];
+				}
+				dependentRules = new int[dependencyCount];
+				int[] filled = new int[fieldCount];
+				for (int rule = 0; rule < ruleCount; rule++) {
+					for (int ruleSlot : ruleSlots[rule]) {
+						dependentRules[dependentStarts[ruleSlot] + filled[ruleSlot]++] = rule;
+					}
+				}
+			}
+
+			/**
+			 * @param slotHint slot to check first, so that field is usually found without lookup
+			 * @return slot of given field or -1 if it's not in this plan
+			 */
+			int slotOf(Control field, int slotHint) {
+				if (slotHint >= 0 && slotHint < fields.length && fields[slotHint] == field) {
+					return slotHint;
+				}
+				Integer slot = slots.get(field);
+				return slot != null ? slot : -1;
+			}
+
+			/**
+			 * @return index of given rule or -1 if it's not in this plan
+			 */
+			int ruleOf(FieldRule rule, int indexHint) {
+				if (indexHint >= 0 && indexHint < rules.length && rules[indexHint] == rule) {
+					return indexHint;
+				}
+				for (int i = 0; i < rules.length; i++) {
+					if (rules[i] == rule) {
+						return i;
+					}
+				}
+				return -1;
+			}
+
+			void markModified(int slot) {
+				if (!modified[slot]) {
+					modified[slot] = true;
+					modifiedSlots[modifiedCount++] = slot;
+				}
+			}
+
+			void unmarkModified(int slot) {
+				if (!modified[slot]) {
+					return;
+				}
+				modified[slot] = false;
+				int i = 0;
+				while (modifiedSlots[i] != slot) {
+					i++;
+				}
+				System.arraycopy(modifiedSlots, i + 1, modifiedSlots, i, modifiedCount - i - 1);
+				modifiedCount--;
+			}
+
+			void markDependentRules(int slot) {
+				for (int i = dependentStarts[slot]; i < dependentStarts[slot + 1]; i++) {
+					markDirty(dependentRules[i]);
+				}
+			}
+
+			private void markDirty(int rule) {
+				if (!ruleDirty[rule]) {
+					ruleDirty[rule] = true;
+					dirtyRules[dirtyRuleCount++] = rule;
+				}
+			}
+
+			boolean isRuleReadable(int rule) {
+				for (int ruleSlot : ruleSlots[rule]) {
+					if (fields[ruleSlot].isDisposed()) {
+						return false;
+					}
+				}
+				return true;
+			}
+
+			String[] readRuleValues(int rule) {
+				String[] values = new String[ruleSlots[rule].length];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = getTextFromField(fields[ruleSlots[rule][i]]);
+				}
+				return values;
+			}
+		}
+
+		/**
+		 * Validation of a field or a rule prepared on UI thread to be run in background
+		 */
+		private abstract static class Snapshot {
+
+			/** slot of the field or index of the rule when snapshot was taken */
+			protected final int index;
+			private final AtomicInteger version;
+			private final int snapshotVersion;
+			/** the first exception thrown by validators, its result is reported as an error */
+			protected RuntimeException failure;
+
+			Snapshot(int index, AtomicInteger version) {
+				this.index = index;
+				this.version = version;
+				this.snapshotVersion = version.incrementAndGet();
+			}
+
+			boolean isCurrent() {
+				return version.get() == snapshotVersion;
+			}
+
+			void validate() {
+				if (!isCurrent()) {
+					return;
+				}
+				// field validators might keep state, i.e. incremental ones, version of the field guards them
+				synchronized (version) {
+					run();
+				}
+			}
+
+			protected abstract void run();
+
+			/**
+			 * @return error result standing for result of validator which threw given exception
+			 */
+			protected ValidationResult fail(RuntimeException e, IValidator validator) {
+				if (failure == null) {
+					failure = e;
+				}
+				return new ValidationResult(ValidationStatus.ERROR, String.format("Validation failed: %s", e), validator);
+			}
+		}
+
+		/**
+		 * Text of a field captured on UI thread to be validated in background
+		 */
+		private static class FieldSnapshot extends Snapshot {
+
+			private final Control field;
+			private final IValidator[] validators;
+			private final int from;
+			private final int to;
+			private final String text;
+			private final ValidationResult[] rawResults;
+			private final ValidationResult[] results;
+
+			FieldSnapshot(ExecutionPlan plan, int slot) {
+				super(slot, plan.versions[slot]);
+				this.field = plan.fields[slot];
+				this.validators = plan.validators;
+				this.from = plan.sliceStarts[slot];
+				this.to = plan.sliceStarts[slot + 1];
+				this.text = getTextFromField(field);
+				// previous results are copied, so that the same results are not copied for the field again
+				this.rawResults = Arrays.copyOfRange(plan.rawResults, from, to);
+				this.results = Arrays.copyOfRange(plan.results, from, to);
+			}
+
+			@Override
+			protected void run() {
+				for (int i = from; i < to; i++) {
+					try {
+						runValidators(validators, i, i + 1, field, text, rawResults, results, i - from);
+					} catch (RuntimeException e) {
+						rawResults[i - from] = null;
+						results[i - from] = fail(e, validators[i]).withField(field);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Text of fields read by a rule captured on UI thread to be validated in background
+		 */
+		private static class RuleSnapshot extends Snapshot {
+
+			private final FieldRule rule;
+			private final String[] values;
+			private ValidationResult result;
+
+			RuleSnapshot(ExecutionPlan plan, int rule) {
+				super(rule, plan.rules[rule].version);
+				this.rule = plan.rules[rule];
+				this.values = plan.readRuleValues(rule);
+			}
+
+			@Override
+			protected void run() {
+				try {
+					result = rule.validate(values);
+				} catch (RuntimeException e) {
+					result = fail(e, null).withField(rule.fields[0]);
+				}
 			}
 		}
 		
@@ -162,31 +1360,60 @@ public class ValidationToolkit {
 	
 	
 	/**
-	 * Setup validation for a bunch 'connected' UI fields represented by given {@link ValidationContext}
+	 * Setup validation for a bunch 'connected' UI fields represented by given {@link ValidationContext}.
+	 * On every change only validators of the modified field are run, results of other fields
+	 * are reused from their previous validation.
+	 * <p>
+	 * Fields set up so far are frozen into an execution plan here, so that validation on changes
+	 * neither hashes nor iterates maps and always reports fields in order they were set up.
+	 * Fields and rules set up afterwards are listened to right away, the plan is rebuilt
+	 * on their first modification. Calling it again for the same context has no effect.
 	 * 
 	 * @param validationContext can't be <code>null</code>
 	 * @throws IllegalArgumentException if validationContext is <code>null</code>
 	 */
-	public static void setupValidation(final ValidationContext validationContext) {
+	public static void setupValidation(ValidationContext validationContext) {
 		if (validationContext == null) {
 			throw new IllegalArgumentException("ValidationContext can't be null!");
 		}
-		for (final Control field : validationContext.fieldConfig.keySet()) {
-			field.addListener(SWT.Modify, new ValidationModifyListener() {
-				@Override
-				public void handleEvent(Event event) {
-					ValidationResult result = new ValidationResult(ValidationStatus.OK);
-					for (Control field : validationContext.fieldConfig.keySet()) {
-						IValidator[] validators = validationContext.fieldConfig.get(field);
-						for (IValidator validator : validators) {
-							ValidationResult childResult = validator.validate(getTextFromField(field));
-							childResult.setField(field);
-							result.addChildResult(childResult);
-						}
-					}
-					validationContext.callback.validationDone(result);
+		if (validationContext.listening) {
+			return;
+		}
+		validationContext.listening = true;
+		Control[] fields = validationContext.getPlan().fields;
+		for (int slot = 0; slot < fields.length; slot++) {
+			addContextListener(validationContext, fields[slot], slot);
+		}
+	}
+
+	/**
+	 * @param slotHint slot of the field in the plan, checked on every modification
+	 */
+	private static void addContextListener(final ValidationContext validationContext, final Control field,
+			final int slotHint) {
+		ValidationModifyListener listener = new ValidationModifyListener() {
+			@Override
+			public void handleEvent(Event event) {
+				if (event.type == SWT.FocusOut) {
+					flush();
+				} else {
+					validationContext.fieldModified(field, slotHint);
 				}
-			});
+			}
+
+			@Override
+			public void flush() {
+				validationContext.flush();
+			}
+
+			@Override
+			public void cancel() {
+				validationContext.fieldRemoved(field);
+			}
+		};
+		field.addListener(SWT.Modify, listener);
+		if (validationContext.getDebounceDelay() > 0) {
+			field.addListener(SWT.FocusOut, listener);
 		}
 	}
 
@@ -213,34 +1440,183 @@ public class ValidationToolkit {
 	 */
 	public static void setupValidation(
 			final Control field, final IValidator[] validators, final ValidationCallback callback) {
+		setupValidation(field, validators, callback, 0);
+	}
+
+	/**
+	 * Setup validation for given text field which is postponed until the field is not modified
+	 * for given time, so that a burst of modifications results in a single validation.
+	 * Postponed validation is also run when the field loses focus or {@link #flushValidation(Control)} is called.
+	 * 
+	 * @param field control which input will be validated, not <code>null</code>
+	 * @param validators bunch of validators to performs actual validation of input value, one by one, not <code>null</code> nor empty
+	 * @param callback called with {@link ValidationResult} when validation is done, could be <code>null</code>
+	 * @param debounceDelay in milliseconds, <code>0</code> to validate on every modification
+	 * @throws IllegalArgumentException if either field is <code>null</code> or validators is <code>null</code> or empty
+	 *  or debounceDelay is negative
+	 */
+	public static void setupValidation(
+			final Control field, final IValidator[] validators, final ValidationCallback callback, int debounceDelay) {
 		if (field == null) {
 			throw new IllegalArgumentException("Text field can't be null!");
 		}
 		if (validators == null || validators.length == 0) {
 			throw new IllegalArgumentException("At least one field validator should be specified!");
 		}
-		field.addListener(SWT.Modify, new ValidationModifyListener() {
+		if (debounceDelay < 0) {
+			throw new IllegalArgumentException("Debounce delay can't be negative!");
+		}
+		FieldValidationListener listener = new FieldValidationListener(
+				field, createFieldValidators(validators), callback, debounceDelay);
+		field.addListener(SWT.Modify, listener);
+		if (debounceDelay > 0) {
+			field.addListener(SWT.FocusOut, listener);
+		}
+	}
+
+	/**
+	 * Setup validation of every line of given multi-line field, lines touched by a change are validated
+	 * again on every change, see {@link LineValidation}.
+	 * 
+	 * @param field multi-line field, not <code>null</code>
+	 * @param validator validates every line, not <code>null</code>
+	 * @param callback called with results of changed lines, could be <code>null</code>
+	 * @return validation of the field lines, {@link LineValidation#dispose()} it to remove validation
+	 * @throws IllegalArgumentException if either field or validator are <code>null</code>
+	 */
+	public static LineValidation setupLineValidation(
+			StyledText field, IValidator validator, LineValidation.LineValidationCallback callback) {
+		if (field == null) {
+			throw new IllegalArgumentException("Text field can't be null!");
+		}
+		return new LineValidation(field.getContent(), validator, callback);
+	}
+
+	/**
+	 * Setup validation of cells of given table with validators of their columns, see {@link ColumnValidation}.
+	 * Rows are validated when table asks for their data (<code>SWT.SetData</code> event of a
+	 * <code>SWT.VIRTUAL</code> table), the rest of rows are validated on given executor.
+	 * Call {@link ColumnValidation#rowChanged(int)} when cells of a row are edited.
+	 * Rows the table asks for before {@link ColumnValidation#rowsReplaced(int, int, int)} or {@link ColumnValidation#reset()}
+	 * let the validation know about a new item count are not validated until then.
+	 *
+	 * @param table to validate, not <code>null</code>
+	 * @param source rows shown by the table, not <code>null</code>
+	 * @param columnValidators validators of every column, not <code>null</code>
+	 * @param executor to validate rows which are not shown on, could be <code>null</code>
+	 * @param callback called on UI thread when rows are validated, could be <code>null</code>
+	 * @return validation of the table rows, disposed with the table
+	 * @throws IllegalArgumentException if either table, source or columnValidators are <code>null</code>
+	 */
+	public static ColumnValidation setupColumnValidation(Table table, ColumnValidation.RowSource source,
+			IValidator[][] columnValidators, Executor executor, ColumnValidation.RowValidationCallback callback) {
+		if (table == null) {
+			throw new IllegalArgumentException("Table can't be null!");
+		}
+		final ColumnValidation validation = new ColumnValidation(source, columnValidators, executor,
+				createUICallback(table.getDisplay(), callback));
+		table.addListener(SWT.SetData, new Listener() {
 			@Override
 			public void handleEvent(Event event) {
-				ValidationResult result;
-				String text = getTextFromField(field);
-				if (validators.length == 1) {
-					result = validators[0].validate(text);
-					result.setField(field);
-				} else {
-					result = new ValidationResult(ValidationStatus.OK);
-					for (IValidator validator : validators) {
-						ValidationResult childResult = validator.validate(text);
-						childResult.setField(field);
-						result.addChildResult(childResult);
-					}
+				// index of the item is passed with the event, looking it up would walk items of the table
+				if (event.index >= 0 && event.index < validation.getRowCount()) {
+					validation.rowShown(event.index);
+				}
+			}
+		});
+		addDisposeListener(table, validation);
+		return validation;
+	}
+
+	/**
+	 * Setup validation of cells of given tree with validators of their columns, just like
+	 * {@link #setupColumnValidation(Table, ColumnValidation.RowSource, IValidator[][], Executor, ColumnValidation.RowValidationCallback)}
+	 * does for a table. Rows are top level items of the tree.
+	 *
+	 * @param tree to validate, not <code>null</code>
+	 * @param source top level rows shown by the tree, not <code>null</code>
+	 * @param columnValidators validators of every column, not <code>null</code>
+	 * @param executor to validate rows which are not shown on, could be <code>null</code>
+	 * @param callback called on UI thread when rows are validated, could be <code>null</code>
+	 * @return validation of the tree rows, disposed with the tree
+	 * @throws IllegalArgumentException if either tree, source or columnValidators are <code>null</code>
+	 */
+	public static ColumnValidation setupColumnValidation(Tree tree, ColumnValidation.RowSource source,
+			IValidator[][] columnValidators, Executor executor, ColumnValidation.RowValidationCallback callback) {
+		if (tree == null) {
+			throw new IllegalArgumentException("Tree can't be null!");
+		}
+		final ColumnValidation validation = new ColumnValidation(source, columnValidators, executor,
+				createUICallback(tree.getDisplay(), callback));
+		tree.addListener(SWT.SetData, new Listener() {
+			@Override
+			public void handleEvent(Event event) {
+				TreeItem item = (TreeItem) event.item;
+				if (item.getParentItem() == null && event.index >= 0 && event.index < validation.getRowCount()) {
+					validation.rowShown(event.index);
+				}
+			}
+		});
+		addDisposeListener(tree, validation);
+		return validation;
+	}
+
+	/**
+	 * @return callback notifying given one on UI thread, rows validated in background are delivered
+	 *  via {@link Display#asyncExec(Runnable)}
+	 */
+	private static ColumnValidation.RowValidationCallback createUICallback(final Display display,
+			final ColumnValidation.RowValidationCallback callback) {
+		if (callback == null) {
+			return null;
+		}
+		return new ColumnValidation.RowValidationCallback() {
+			@Override
+			public void rowsValidated(final int fromRow, final int toRow) {
+				if (display.isDisposed()) {
+					return;
 				}
-				if (callback != null) {
-					callback.validationDone(result);
+				if (display.getThread() == Thread.currentThread()) {
+					callback.rowsValidated(fromRow, toRow);
+				} else {
+					display.asyncExec(new Runnable() {
+						@Override
+						public void run() {
+							callback.rowsValidated(fromRow, toRow);
+						}
+					});
 				}
 			}
+		};
+	}
+
+	private static void addDisposeListener(Control grid, final ColumnValidation validation) {
+		grid.addListener(SWT.Dispose, new Listener() {
+			@Override
+			public void handleEvent(Event event) {
+				validation.dispose();
+			}
 		});
 	}
+
+	/**
+	 * Run validation of given field postponed by debounce delay right now, i.e. before form is submitted.
+	 * Does nothing if the field was not modified since its last validation.
+	 * 
+	 * @param field to validate, can't be <code>null</code>
+	 * @throws IllegalArgumentException if given field is <code>null</code>
+	 * @see ValidationContext#flush()
+	 */
+	public static void flushValidation(Control field) {
+		if (field == null) {
+			throw new IllegalArgumentException("Field can't be null!");
+		}
+		for (Listener listener : field.getListeners(SWT.Modify)) {
+			if (listener instanceof ValidationModifyListener) {
+				((ValidationModifyListener) listener).flush();
+			}
+		}
+	}
 	
 	/**
 	 * Remove validation capabilities from a given UI field
@@ -256,26 +1632,169 @@ public class ValidationToolkit {
 		for (Listener listener : listeners) {
 			if (listener instanceof ValidationModifyListener) {
 				field.removeListener(SWT.Modify, listener);
+				((ValidationModifyListener) listener).cancel();
+			}
+		}
+		for (Listener listener : field.getListeners(SWT.FocusOut)) {
+			if (listener instanceof ValidationModifyListener) {
+				field.removeListener(SWT.FocusOut, listener);
 			}
 		}
 	}
 
+	/**
+	 * Register a custom way of reading text from UI fields of given type and its subclasses.
+	 * Fields without registered accessor are read via their public <code>getText()</code> method.
+	 * 
+	 * @param fieldType class of UI fields, can't be <code>null</code>
+	 * @param accessor reads text from a field, can't be <code>null</code>
+	 * @throws IllegalArgumentException if either fieldType or accessor are <code>null</code>
+	 */
+	public static <T extends Control> void registerTextAccessor(Class<T> fieldType, ITextAccessor<? super T> accessor) {
+		TextAccessors.register(fieldType, accessor);
+	}
+
+	/**
+	 * Scheduler running validation on given display, does nothing once the display is disposed
+	 */
+	private static class DisplayScheduler implements UIScheduler {
+
+		private final Display display;
+
+		DisplayScheduler(Display display) {
+			if (display == null) {
+				throw new IllegalStateException("Validation should be run from UI thread!");
+			}
+			this.display = display;
+		}
+
+		@Override
+		public void timerExec(int delay, Runnable runnable) {
+			if (!display.isDisposed()) {
+				display.timerExec(delay, runnable);
+			}
+		}
+
+		@Override
+		public void asyncExec(Runnable runnable) {
+			if (!display.isDisposed()) {
+				display.asyncExec(runnable);
+			}
+		}
+
+		@Override
+		public Control getFocusControl() {
+			return display.isDisposed() ? null : display.getFocusControl();
+		}
+	}
+
+	/**
+	 * Validates a single field set up without {@link ValidationContext}
+	 */
+	private static class FieldValidationListener implements ValidationModifyListener, Runnable {
+
+		private final Control field;
+		private final IValidator[] fieldValidators;
+		private final ValidationCallback callback;
+		private final int debounceDelay;
+		private Display scheduledDisplay;
+
+		FieldValidationListener(Control field, IValidator[] fieldValidators, ValidationCallback callback, int debounceDelay) {
+			this.field = field;
+			this.fieldValidators = fieldValidators;
+			this.callback = callback;
+			this.debounceDelay = debounceDelay;
+		}
+
+		@Override
+		public void handleEvent(Event event) {
+			if (event.type == SWT.FocusOut) {
+				flush();
+			} else if (debounceDelay == 0) {
+				validate();
+			} else {
+				// rescheduling already scheduled runnable restarts its timer
+				scheduledDisplay = field.getDisplay();
+				scheduledDisplay.timerExec(debounceDelay, this);
+			}
+		}
+
+		@Override
+		public void run() {
+			scheduledDisplay = null;
+			if (!field.isDisposed()) {
+				validate();
+			}
+		}
+
+		@Override
+		public void flush() {
+			if (scheduledDisplay != null) {
+				cancel();
+				validate();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (scheduledDisplay != null) {
+				if (!scheduledDisplay.isDisposed()) {
+					scheduledDisplay.timerExec(-1, this);
+				}
+				scheduledDisplay = null;
+			}
+		}
+
+		private void validate() {
+			long startTime = ValidationMetrics.startTime();
+			ValidationResult result = validateText(fieldValidators, getContentFromField(field, fieldValidators, 0, fieldValidators.length), field);
+			if (callback != null) {
+				callback.validationDone(result);
+			}
+			ValidationMetrics.recordField(field, result, startTime);
+		}
+	}
+
+	/**
+	 * Validation step of {@link FieldValidationListener}, kept apart from reading text of the field
+	 * so that it could be measured on its own.
+	 *
+	 * @return result of a single validator or compound result of several ones
+	 */
+	static ValidationResult validateText(IValidator[] validators, CharSequence text, Control field) {
+		if (validators.length == 1) {
+			return ValidationMetrics.validate(validators[0], text).withField(field);
+		}
+		ValidationResult result = new ValidationResult(ValidationStatus.OK);
+		for (IValidator validator : validators) {
+			result.addChildResult(ValidationMetrics.validate(validator, text).withField(field));
+		}
+		return result;
+	}
+
+	private static IValidator[] createFieldValidators(IValidator[] validators) {
+		IValidator[] fieldValidators = new IValidator[validators.length];
+		for (int i = 0; i < validators.length; i++) {
+			fieldValidators[i] = validators[i] instanceof IIncrementalValidator
+					? ((IIncrementalValidator) validators[i]).createFieldValidator() : validators[i];
+		}
+		return fieldValidators;
+	}
+
 	private static String getTextFromField(Control field) {
-        try {
-
-            return String.valueOf(
-                    field.getClass().getDeclaredMethod(GET_TEXT_METHOD_NAME).invoke(field));
-
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(
-                    String.format("Control of type %s does not have '%s()' method!",
-                            field.getClass().getName(), GET_TEXT_METHOD_NAME), e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(
-                    String.format("'%s()' method threw an exception: %s", GET_TEXT_METHOD_NAME, e.getMessage()), e);
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(
-                    String.format("'%s()' method enforced Java access control or is inaccessible.", GET_TEXT_METHOD_NAME), e);
-        }
-    }
+		return TextAccessors.getText(field);
+	}
+
+	/**
+	 * @return content of the field read without copying if every validator could check it that way,
+	 *  its text otherwise
+	 */
+	private static CharSequence getContentFromField(Control field, IValidator[] validators, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (!(validators[i] instanceof ICharSequenceValidator)) {
+				return getTextFromField(field);
+			}
+		}
+		return TextAccessors.getContent(field);
+	}
 }
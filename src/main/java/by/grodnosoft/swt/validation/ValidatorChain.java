@@ -0,0 +1,217 @@
+package by.grodnosoft.swt.validation;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICostAwareValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IIncrementalValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+/**
+ * Combines several validators of a field into one which could stop as soon as its result is known.
+ * Validators are run from the cheapest to the most expensive one (see {@link ICostAwareValidator}),
+ * validators of the same cost are run in given order.
+ * <p>
+ * Result of a chain is compound, containing results of every validator in order they were run
+ * followed by {@link ValidationResult#isSkipped() skipped} results of validators which were not run.
+ * <p>
+ * Chars passed to a chain are passed as they are to validators which implement {@link ICharSequenceValidator},
+ * the rest of validators get a single {@link String} copy of them.
+ *
+ * @author Denis Dudnik <deniska.dudnik@gmail.com>
+ *
+ */
+public class ValidatorChain implements IIncrementalValidator, ICharSequenceValidator, ICostAwareValidator {
+
+	public enum Mode {
+		/** every validator is run, result is the worst one */
+		RUN_ALL,
+		/** every validator should pass, validation stops at the first error */
+		AND,
+		/** at least one validator should pass, validation stops at the first valid result */
+		OR
+	}
+
+	private final Mode mode;
+	/** validators sorted by cost */
+	private final IValidator[] validators;
+
+	/**
+	 * @param mode how validators are combined, not <code>null</code>
+	 * @param validators to combine, not <code>null</code> nor empty
+	 * @throws IllegalArgumentException if either mode is <code>null</code> or validators is <code>null</code> or empty
+	 */
+	public ValidatorChain(Mode mode, IValidator... validators) {
+		if (mode == null) {
+			throw new IllegalArgumentException("Mode can't be null!");
+		}
+		if (validators == null || validators.length == 0) {
+			throw new IllegalArgumentException("At least one validator should be specified!");
+		}
+		this.mode = mode;
+		this.validators = sortByCost(validators);
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return sum of costs of all validators
+	 */
+	@Override
+	public int getCost() {
+		int cost = 0;
+		for (IValidator validator : validators) {
+			cost += getCost(validator);
+		}
+		return cost;
+	}
+
+	/**
+	 * @return chain of field validators of incremental validators, or this chain if there are none
+	 */
+	@Override
+	public IValidator createFieldValidator() {
+		IValidator[] fieldValidators = new IValidator[validators.length];
+		boolean incremental = false;
+		for (int i = 0; i < validators.length; i++) {
+			if (validators[i] instanceof IIncrementalValidator) {
+				fieldValidators[i] = ((IIncrementalValidator) validators[i]).createFieldValidator();
+				incremental |= fieldValidators[i] != validators[i];
+			} else {
+				fieldValidators[i] = validators[i];
+			}
+		}
+		return incremental ? new FieldChain(fieldValidators) : this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(String valueToValidate) {
+		return validate(validators, valueToValidate);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ValidationResult validate(CharSequence value, int start, int end) {
+		return validate(validators, CharRange.of(value, start, end));
+	}
+
+	private ValidationResult validate(IValidator[] fieldValidators, CharSequence valueToValidate) {
+		ValidationResult[] results = new ValidationResult[fieldValidators.length];
+		ValidationStatus status = mode == Mode.OR ? ValidationStatus.ERROR : ValidationStatus.OK;
+		int run = 0;
+		while (run < fieldValidators.length) {
+			IValidator validator = fieldValidators[run];
+			if (valueToValidate != null && !(valueToValidate instanceof String)
+					&& !(validator instanceof ICharSequenceValidator)) {
+				valueToValidate = valueToValidate.toString();
+			}
+			ValidationResult result = ValidationMetrics.validate(validator, valueToValidate);
+			results[run++] = result;
+			if (mode == Mode.OR) {
+				if (result.getStatus().compareTo(status) < 0) {
+					status = result.getStatus();
+				}
+				if (status == ValidationStatus.OK) {
+					break;
+				}
+			} else {
+				if (result.getStatus().compareTo(status) > 0) {
+					status = result.getStatus();
+				}
+				if (mode == Mode.AND && status == ValidationStatus.ERROR) {
+					break;
+				}
+			}
+		}
+		for (int i = run; i < fieldValidators.length; i++) {
+			results[i] = ValidationResult.skipped(validators[i]);
+		}
+		ValidationResult chainResult = status == ValidationStatus.OK
+				? new ValidationResult(status, this) : ValidationResult.lazy(status, new ChainMessage(results), this);
+		for (ValidationResult result : results) {
+			chainResult.addChildResult(result, false);
+		}
+		return chainResult;
+	}
+
+	private static IValidator[] sortByCost(IValidator[] validators) {
+		IValidator[] sorted = validators.clone();
+		// insertion sort keeps validators of the same cost in given order
+		for (int i = 1; i < sorted.length; i++) {
+			IValidator validator = sorted[i];
+			int cost = getCost(validator);
+			int j = i - 1;
+			while (j >= 0 && getCost(sorted[j]) > cost) {
+				sorted[j + 1] = sorted[j];
+				j--;
+			}
+			sorted[j + 1] = validator;
+		}
+		return sorted;
+	}
+
+	private static int getCost(IValidator validator) {
+		return validator instanceof ICostAwareValidator
+				? ((ICostAwareValidator) validator).getCost() : ICostAwareValidator.DEFAULT_COST;
+	}
+
+	/**
+	 * Joins messages of results which are not OK
+	 */
+	private class ChainMessage implements IMessageSupplier {
+
+		private final ValidationResult[] results;
+
+		ChainMessage(ValidationResult[] results) {
+			this.results = results;
+		}
+
+		@Override
+		public String getMessage() {
+			StringBuilder message = new StringBuilder();
+			for (ValidationResult result : results) {
+				if (result.getStatus() != ValidationStatus.OK && result.getMessage() != null) {
+					if (message.length() > 0) {
+						message.append(mode == Mode.OR ? " or " : " ");
+					}
+					message.append(result.getMessage());
+				}
+			}
+			return message.length() > 0 ? message.toString() : null;
+		}
+	}
+
+	/**
+	 * Chain of a single field, its incremental validators keep state of that field
+	 */
+	private class FieldChain implements ICharSequenceValidator {
+
+		private final IValidator[] fieldValidators;
+
+		FieldChain(IValidator[] fieldValidators) {
+			this.fieldValidators = fieldValidators;
+		}
+
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			return ValidatorChain.this.validate(fieldValidators, valueToValidate);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public ValidationResult validate(CharSequence value, int start, int end) {
+			return ValidatorChain.this.validate(fieldValidators, CharRange.of(value, start, end));
+		}
+	}
+
+}
@@ -0,0 +1,102 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.BulkValidationEngine.BatchCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class BulkValidationEngineTest {
+
+	private ValidationSchema schema;
+
+	@Before
+	public void setUp() throws Exception {
+		schema = new ValidationSchema();
+		schema.setupField("name", ValidationToolkit.NON_EMPTY);
+		schema.setupField("email", new IValidator[] {ValidationToolkit.NON_EMPTY, ValidationToolkit.EMAIL});
+		schema.setupField("age", new IntegerRangeValidator(0, 150));
+	}
+
+	@Test
+	public void schemaKeepsFieldOrder() throws Exception {
+		assertEquals(Arrays.asList("name", "email", "age"), schema.getFieldNames());
+		assertEquals(1, schema.getFieldIndex("email"));
+		assertEquals(-1, schema.getFieldIndex("phone"));
+		Map<String, String> values = new HashMap<String, String>();
+		values.put("age", "42");
+		assertEquals(Arrays.asList(null, null, "42"), Arrays.asList(schema.toRecord(values)));
+	}
+
+	@Test
+	public void validateRecords() throws Exception {
+		BulkValidationResult result = new BulkValidationEngine(schema).validate(new String[][] {
+				{"John", "john@host.com", "42"},
+				{"", "john@host.com", "42"},
+				{"John", "wrong", "200"},
+				{"John", "john@host.com"}
+		});
+		assertEquals(4, result.getRecordCount());
+		assertEquals(ValidationStatus.OK, result.getStatus(0));
+		assertEquals(ValidationStatus.ERROR, result.getStatus(1));
+		assertEquals(ValidationStatus.ERROR, result.getStatus(1, 0));
+		assertEquals(ValidationStatus.OK, result.getStatus(1, 1));
+		assertEquals(ValidationStatus.ERROR, result.getStatus(2, 1));
+		assertEquals(ValidationStatus.ERROR, result.getStatus(2, 2));
+		assertEquals(ValidationStatus.OK, result.getStatus(3));
+		assertEquals(2, result.countRecords(ValidationStatus.OK));
+		assertSame(ValidationToolkit.EMAIL, result.getResult(2, "email").getValidator());
+		assertNotNull(result.getResult(2, "age").getMessage());
+		assertEquals(ValidationStatus.OK, result.getResult(0, "email").getStatus());
+	}
+
+	@Test
+	public void validateInParallelChunks() throws Exception {
+		List<String[]> records = new ArrayList<String[]>();
+		for (int i = 0; i < 10000; i++) {
+			records.add(new String[] {"name" + i, "user" + i + "@host.com", String.valueOf(i % 300)});
+		}
+		BulkValidationEngine engine = new BulkValidationEngine(schema);
+		engine.setChunkSize(64);
+		BulkValidationResult result = engine.validate(records);
+		for (int i = 0; i < records.size(); i++) {
+			assertEquals(i % 300 <= 150 ? ValidationStatus.OK : ValidationStatus.ERROR, result.getStatus(i));
+		}
+	}
+
+	@Test
+	public void validateInBatches() throws Exception {
+		List<String[]> records = new ArrayList<String[]>();
+		for (int i = 0; i < 25; i++) {
+			records.add(new String[] {i % 10 == 0 ? "" : "name", "a@b.com", "1"});
+		}
+		final List<Long> firstRecords = new ArrayList<Long>();
+		final int[] errors = new int[1];
+		new BulkValidationEngine(schema).validate(records.iterator(), 10, new BatchCallback() {
+			@Override
+			public void batchValidated(long firstRecord, BulkValidationResult result) {
+				firstRecords.add(firstRecord);
+				errors[0] += result.countRecords(ValidationStatus.ERROR);
+			}
+		});
+		assertEquals(Arrays.asList(0L, 10L, 20L), firstRecords);
+		assertEquals(3, errors[0]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void setIllegalChunkSize() throws Exception {
+		new BulkValidationEngine(schema).setChunkSize(0);
+	}
+
+}
@@ -0,0 +1,133 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class CachingValidatorTest {
+
+	private CountingValidator counting;
+
+	@Before
+	public void setUp() throws Exception {
+		counting = new CountingValidator();
+	}
+
+	@Test
+	public void validateRepeatedValuesOnce() throws Exception {
+		CachingValidator validator = new CachingValidator(counting, 100);
+		ValidationResult result = validator.validate("42");
+		ValidatorsTestSuite.assertValidationResultOK(counting.delegate, result);
+		assertSame(result, validator.validate("42"));
+		ValidatorsTestSuite.assertValidationResultERROR(counting.delegate, validator.validate("x"));
+		validator.validate("x");
+		assertEquals(2, counting.calls.get());
+		assertEquals(2, validator.getHitCount());
+		assertEquals(2, validator.getMissCount());
+		assertEquals(0.5, validator.getHitRate(), 0);
+		assertEquals(2, validator.size());
+	}
+
+	@Test
+	public void doNotCacheNull() throws Exception {
+		CachingValidator validator = new CachingValidator(counting, 100);
+		validator.validate(null);
+		validator.validate(null);
+		assertEquals(2, counting.calls.get());
+		assertEquals(0, validator.size());
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedValues() throws Exception {
+		CachingValidator validator = new CachingValidator(counting, 2);
+		validator.validate("1");
+		validator.validate("2");
+		validator.validate("1");
+		validator.validate("3");
+		assertEquals(2, validator.size());
+		assertEquals(1, validator.getEvictionCount());
+		validator.validate("1");
+		assertEquals(3, counting.calls.get());
+		validator.validate("2");
+		assertEquals(4, counting.calls.get());
+	}
+
+	@Test
+	public void evictValuesToFitTotalLength() throws Exception {
+		CachingValidator validator = new CachingValidator(counting, 100, 10, 0, TimeUnit.SECONDS);
+		validator.validate("1234");
+		validator.validate("5678");
+		validator.validate("901");
+		assertEquals(1, validator.getEvictionCount());
+		assertEquals(2, validator.size());
+		validator.validate("12345678901");
+		assertEquals(2, validator.size());
+	}
+
+	@Test
+	public void expireValues() throws Exception {
+		CachingValidator validator = new CachingValidator(counting, 100, Long.MAX_VALUE, 1, TimeUnit.MILLISECONDS);
+		validator.validate("1");
+		Thread.sleep(10);
+		validator.validate("1");
+		assertEquals(2, counting.calls.get());
+		assertEquals(0, validator.getEvictionCount());
+	}
+
+	@Test
+	public void validateFromManyThreads() throws Exception {
+		final CachingValidator validator = new CachingValidator(counting, 64);
+		List<Thread> threads = new ArrayList<Thread>();
+		final AtomicInteger failures = new AtomicInteger();
+		for (int t = 0; t < 4; t++) {
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 10000; i++) {
+						String value = String.valueOf(i % 100);
+						if (validator.validate(value).getStatus() != ValidationStatus.OK) {
+							failures.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, failures.get());
+		assertEquals(40000, validator.getHitCount() + validator.getMissCount());
+		assertEquals(64, validator.size());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void createWithIllegalSize() throws Exception {
+		new CachingValidator(counting, 0);
+	}
+
+	private static class CountingValidator implements IValidator {
+
+		final IValidator delegate = new NumericValidator();
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			calls.incrementAndGet();
+			return delegate.validate(valueToValidate);
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.RegexValidator.Engine;
+import by.grodnosoft.swt.validation.ValidationToolkit.ICharSequenceValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IIncrementalValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+import by.grodnosoft.swt.validation.ValidatorChain.Mode;
+
+public class CharSequenceValidatorTest {
+
+	private static final String[] VALUES = {
+		"", "123", "-12.5e3", "abc", "test@test.com", "wrong@host", "+1 (123) 456-7890", "123..456..7890",
+		"apple", "app", "applesauce"
+	};
+
+	private final ICharSequenceValidator[] validators = {
+		new NonEmptyValidator(), new NumericValidator(), new IntegerRangeValidator(0, 200),
+		new EmailValidator(), new EmailValidator(Engine.JAVA_REGEX), new PhoneNumberValidator(),
+		new PhoneNumberValidator(Engine.DFA), new RegexValidator("[a-z]+"), new TrieValidator("apple", "banana"),
+		new ValidatorChain(Mode.AND, new NumericValidator(), new IntegerRangeValidator(0, 200))
+	};
+
+	@Test
+	public void validateRangeAsString() throws Exception {
+		for (ICharSequenceValidator validator : validators) {
+			for (String value : VALUES) {
+				StringBuilder padded = new StringBuilder("<<").append(value).append(">>");
+				ValidationResult expected = validator.validate(value);
+				ValidationResult result = validator.validate(padded, 2, 2 + value.length());
+				assertEquals(value, expected.getStatus(), result.getStatus());
+				assertEquals(value, expected.getMessage(), result.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void keepMessageAfterCharsChange() throws Exception {
+		for (ICharSequenceValidator validator : validators) {
+			for (String value : VALUES) {
+				StringBuilder content = new StringBuilder(value);
+				ValidationResult result = validator.validate(content, 0, content.length());
+				content.setLength(0);
+				content.append("changed");
+				assertEquals(value, validator.validate(value).getMessage(), result.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void validateFieldWithoutCopying() throws Exception {
+		RegexValidator regex = new RegexValidator("ap+le", Engine.DFA);
+		regex.setIncremental(true);
+		RegexValidator backtracking = new RegexValidator("ap+le");
+		backtracking.setIncremental(true);
+		IIncrementalValidator[] incrementalValidators = {
+			new TrieValidator("apple", "banana"), regex, backtracking,
+			new ValidatorChain(Mode.AND, new NonEmptyValidator(), regex)
+		};
+		String[] typed = {"a", "ap", "app", "appl", "apple", "applex", "appl", "b", "", "apple"};
+		for (IIncrementalValidator validator : incrementalValidators) {
+			ICharSequenceValidator field = (ICharSequenceValidator) validator.createFieldValidator();
+			IValidator stringField = validator.createFieldValidator();
+			StringBuilder content = new StringBuilder();
+			for (String value : typed) {
+				content.setLength(0);
+				content.append("<<").append(value).append(">>");
+				ValidationResult expected = stringField.validate(value);
+				ValidationResult result = field.validate(content, 2, 2 + value.length());
+				content.setLength(0);
+				assertEquals(value, expected.getStatus(), result.getStatus());
+				assertEquals(value, expected.getMessage(), result.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void validateCharArray() throws Exception {
+		char[] chars = "  42  ".toCharArray();
+		assertEquals(ValidationStatus.OK, new NumericValidator().validate(CharBuffer.wrap(chars), 0, chars.length).getStatus());
+		assertEquals(ValidationStatus.ERROR, new NumericValidator().validate(CharBuffer.wrap(chars), 0, 2).getStatus());
+	}
+
+	@Test
+	public void readOnlyNeededChars() throws Exception {
+		CountingSequence content = new CountingSequence(1 << 20);
+		assertEquals(ValidationStatus.OK, new NonEmptyValidator().validate(content, 0, content.length()).getStatus());
+		assertEquals(ValidationStatus.ERROR, new EmailValidator().validate(content, 0, content.length()).getStatus());
+		assertEquals(ValidationStatus.ERROR, new PhoneNumberValidator().validate(content, 0, content.length()).getStatus());
+		// phone number is rejected at its first char, the rest of validators do not read chars at all
+		assertEquals(1, content.reads.get());
+	}
+
+	@Test
+	public void copyOnceForStringValidators() throws Exception {
+		CountingSequence content = new CountingSequence(10);
+		final AtomicInteger copies = new AtomicInteger();
+		IValidator stringValidator = new IValidator() {
+			@Override
+			public ValidationResult validate(String valueToValidate) {
+				copies.incrementAndGet();
+				return new ValidationResult(ValidationStatus.OK, this);
+			}
+		};
+		ValidatorChain chain = new ValidatorChain(Mode.RUN_ALL, new NonEmptyValidator(), stringValidator, stringValidator);
+		assertEquals(ValidationStatus.OK, chain.validate(content, 0, content.length()).getStatus());
+		assertEquals(2, copies.get());
+		assertEquals(1, content.copies.get());
+	}
+
+	@Test
+	public void rangeOfRange() throws Exception {
+		CharSequence range = CharRange.of("0123456789", 2, 8);
+		assertEquals("234567", range.toString());
+		assertEquals("45", range.subSequence(2, 4).toString());
+		String value = "value";
+		assertSame(value, CharRange.of(value, 0, value.length()));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void validateRangeOutOfBounds() throws Exception {
+		new NonEmptyValidator().validate("value", 2, 6);
+	}
+
+	/**
+	 * Content of given length counting chars read and copies made
+	 */
+	private static class CountingSequence implements CharSequence {
+
+		private final int length;
+		final AtomicInteger reads = new AtomicInteger();
+		final AtomicInteger copies = new AtomicInteger();
+
+		CountingSequence(int length) {
+			this.length = length;
+		}
+
+		@Override
+		public int length() {
+			return length;
+		}
+
+		@Override
+		public char charAt(int index) {
+			reads.incrementAndGet();
+			return 'a';
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return CharRange.of(this, start, end);
+		}
+
+		@Override
+		public String toString() {
+			copies.incrementAndGet();
+			char[] chars = new char[length];
+			Arrays.fill(chars, 'a');
+			return new String(chars);
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ColumnValidation.RowSource;
+import by.grodnosoft.swt.validation.ColumnValidation.RowValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class ColumnValidationTest {
+
+	private final List<String[]> rows = new ArrayList<String[]>();
+	private final List<Runnable> tasks = new ArrayList<Runnable>();
+	private final List<int[]> validatedRanges = new ArrayList<int[]>();
+	private final RowSource source = new RowSource() {
+		@Override
+		public int getRowCount() {
+			return rows.size();
+		}
+
+		@Override
+		public String getText(int row, int column) {
+			return rows.get(row)[column];
+		}
+	};
+	private final Executor executor = new Executor() {
+		@Override
+		public void execute(Runnable command) {
+			tasks.add(command);
+		}
+	};
+	private final RowValidationCallback callback = new RowValidationCallback() {
+		@Override
+		public void rowsValidated(int fromRow, int toRow) {
+			validatedRanges.add(new int[] {fromRow, toRow});
+		}
+	};
+	private final IValidator[][] columnValidators = {
+			{ValidationToolkit.NON_EMPTY}, null, {ValidationToolkit.NUMERIC}};
+
+	@Before
+	public void setUp() throws Exception {
+		addRow("a", "any", "1");
+		addRow("", "any", "2");
+		addRow("c", "any", "x");
+		addRow("d", "any", "4");
+	}
+
+	@Test
+	public void validateShownRowOnly() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, null, callback);
+		assertEquals(4, validation.getPendingRowCount());
+		assertEquals(ValidationStatus.ERROR, validation.rowShown(1));
+		assertNull(validation.getRowStatus(0));
+		assertEquals(3, validation.getPendingRowCount());
+		assertEquals(1, validation.getErrorCount());
+		assertEquals(1, validatedRanges.size());
+	}
+
+	@Test
+	public void notValidateShownRowAgain() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, null, callback);
+		validation.rowShown(0);
+		validation.rowShown(0);
+		assertEquals(1, validatedRanges.size());
+	}
+
+	@Test
+	public void validateOtherRowsInBackground() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, executor, callback);
+		assertEquals(1, tasks.size());
+		validation.rowShown(3);
+		runTasks();
+		assertEquals(0, validation.getPendingRowCount());
+		assertEquals(2, validation.getErrorCount());
+		assertEquals(2, validation.getRowCount(ValidationStatus.OK));
+		assertEquals(ValidationStatus.ERROR, validation.getStatus());
+		assertEquals(2, validation.findRow(ValidationStatus.ERROR, 2));
+		int[] backgroundRange = validatedRanges.get(1);
+		assertEquals(0, backgroundRange[0]);
+		assertEquals(3, backgroundRange[1]);
+	}
+
+	@Test
+	public void validateRowsInSubsequentBatches() throws Exception {
+		rows.clear();
+		for (int i = 0; i < 1000; i++) {
+			addRow("a", "any", String.valueOf(i));
+		}
+		final List<String> validatedValues = new ArrayList<String>();
+		IValidator recording = new IValidator() {
+			@Override
+			public ValidationResult validate(String valueToValidate) {
+				validatedValues.add(valueToValidate);
+				return new ValidationResult(ValidationStatus.OK);
+			}
+		};
+		ColumnValidation validation = new ColumnValidation(source, new IValidator[][] {null, null, {recording}},
+				executor, callback);
+		validation.rowShown(300);
+		runTasks();
+		assertEquals(0, validation.getPendingRowCount());
+		assertEquals(1000, validatedValues.size());
+		// every batch continues from the row the previous one stopped at, the shown row is skipped
+		assertEquals(5, validatedRanges.size());
+		assertEquals(0, validatedRanges.get(1)[0]);
+		for (int i = 2; i < validatedRanges.size(); i++) {
+			assertEquals(validatedRanges.get(i - 1)[1], validatedRanges.get(i)[0]);
+		}
+		assertEquals(1000, validatedRanges.get(4)[1]);
+	}
+
+	@Test
+	public void keepErrorCountOnChanges() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, null, callback);
+		validation.validateAll();
+		assertEquals(2, validation.getErrorCount());
+		rows.get(1)[0] = "b";
+		ValidationResult result = validation.rowChanged(1);
+		assertEquals(ValidationStatus.OK, result.getStatus());
+		assertEquals(2, result.getChildren().size());
+		assertEquals(1, validation.getErrorCount());
+		rows.get(2)[2] = "3";
+		validation.rowChanged(2);
+		assertEquals(0, validation.getErrorCount());
+		assertEquals(4, validation.getRowCount(ValidationStatus.OK));
+	}
+
+	@Test
+	public void shiftStatusesOnReplacedRows() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, executor, callback);
+		validation.validateAll();
+		rows.remove(1);
+		rows.add(0, new String[] {"z", "any", "z"});
+		rows.add(0, new String[] {"y", "any", "0"});
+		validation.rowsReplaced(1, 1, 0);
+		validation.rowsReplaced(0, 0, 2);
+		assertEquals(5, validation.getRowCount());
+		assertEquals(2, validation.getPendingRowCount());
+		assertEquals(1, validation.getErrorCount());
+		assertEquals(ValidationStatus.ERROR, validation.getRowStatus(3));
+		runTasks();
+		assertEquals(0, validation.getPendingRowCount());
+		assertEquals(2, validation.getErrorCount());
+		assertEquals(1, validation.findRow(ValidationStatus.ERROR, 0));
+	}
+
+	@Test
+	public void keepRowValidatedOnUIThread() throws Exception {
+		final ColumnValidation[] validation = new ColumnValidation[1];
+		IValidator changing = new IValidator() {
+			@Override
+			public ValidationResult validate(String valueToValidate) {
+				if (tasks.isEmpty() && rows.get(0)[1].equals("any")) {
+					// row is edited while it's validated in background
+					rows.get(0)[1] = "edited";
+					validation[0].rowChanged(0);
+				}
+				return new ValidationResult(
+						valueToValidate.equals("any") ? ValidationStatus.ERROR : ValidationStatus.OK);
+			}
+		};
+		validation[0] = new ColumnValidation(source, new IValidator[][] {null, {changing}}, executor, null);
+		runTasks();
+		assertEquals(ValidationStatus.OK, validation[0].getRowStatus(0));
+		assertEquals(3, validation[0].getErrorCount());
+	}
+
+	@Test
+	public void stopValidationWhenDisposed() throws Exception {
+		ColumnValidation validation = new ColumnValidation(source, columnValidators, executor, callback);
+		validation.dispose();
+		runTasks();
+		assertEquals(4, validation.getPendingRowCount());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rejectUnknownRow() throws Exception {
+		new ColumnValidation(source, columnValidators, null, callback).rowShown(4);
+	}
+
+	private void addRow(String... cells) {
+		rows.add(cells);
+	}
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package by.grodnosoft.swt.validation;
+
+import org.junit.Test;
+
+public class DoubleRangeValidatorTest {
+
+	@Test
+	public void validateValuesInRange() throws Exception {
+		DoubleRangeValidator validator = new DoubleRangeValidator(0, 0.3);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0.3"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("3e-1"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0.299999999999999999999999"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("1e-400"));
+	}
+
+	@Test
+	public void validateValuesOutOfRange() throws Exception {
+		DoubleRangeValidator validator = new DoubleRangeValidator(0, 0.3);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("-0.1"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("0.30000000000000004"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("1e400"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("NaN"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("0x1p-1"));
+	}
+
+	@Test
+	public void validateExclusiveBounds() throws Exception {
+		DoubleRangeValidator validator = new DoubleRangeValidator(0, false, 100, false);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("0.0"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0.01"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("99.99"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("100"));
+	}
+
+	@Test
+	public void validateFloatValues() throws Exception {
+		DoubleRangeValidator validator = new DoubleRangeValidator(0, Float.MAX_VALUE);
+		validator.setNumberType(Float.class);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("3.4e38"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("3.5e38"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void createWithIllegalRange() throws Exception {
+		new DoubleRangeValidator(0, Double.NaN);
+	}
+
+}
@@ -1,8 +1,15 @@
 package by.grodnosoft.swt.validation;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import by.grodnosoft.swt.validation.RegexValidator.Engine;
+
 public class EmailValidatorTest {
 	
 	private EmailValidator validator;
@@ -56,4 +63,71 @@ public class EmailValidatorTest {
 				validator, validator.validate("illegal spaces@host. com"));
 	}
 
+	@Test
+	public void validateLengthLimits() throws Exception {
+		String local = repeat("a", 64);
+		String label = repeat("b", 63);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate(local + "@" + label + ".com"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate(local + "a@host.com"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("a@" + label + "b.com"));
+		String domain = label + "." + label + "." + label + "." + repeat("c", 57) + ".com";
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("a@" + domain));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("a@" + repeat("a.", 200) + "com"));
+	}
+
+	@Test
+	public void validateInternationalDomains() throws Exception {
+		String[] domains = {"a@\u043f\u0440\u0438\u043c\u0435\u0440.\u0440\u0444", "a@m\u00fcnchen.de",
+				"a@host.xn--mnchen-3ya.de", "a@host.xn--p1ai", "a@with-hyphen.in-the-middle.com"};
+		for (String email : domains) {
+			ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate(email));
+		}
+		validator.setInternationalDomains(true);
+		for (String email : domains) {
+			ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate(email));
+		}
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("a@-host.com"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("a@host-.com"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("a@host.xn--"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("a@host.\u0440\u04441"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("a@" + repeat("\u00fc", 60) + ".de"));
+	}
+
+	@Test
+	public void setScannedValidatorIncremental() throws Exception {
+		validator.setIncremental(true);
+		assertSame(validator, validator.createFieldValidator());
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.createFieldValidator().validate("a@"));
+	}
+
+	@Test
+	public void acceptSameEmailsAsRegex() throws Exception {
+		EmailValidator regexValidator = new EmailValidator(Engine.DFA);
+		Random random = new Random(42);
+		String alphabet = "aZ09_-+.@";
+		for (int i = 0; i < 100000; i++) {
+			StringBuilder email = new StringBuilder();
+			int length = 1 + random.nextInt(12);
+			for (int j = 0; j < length; j++) {
+				email.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String value = email.toString();
+			assertEquals(value, regexValidator.validate(value).getStatus(), validator.validate(value).getStatus());
+		}
+	}
+
+	private static String repeat(String value, int times) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
 }
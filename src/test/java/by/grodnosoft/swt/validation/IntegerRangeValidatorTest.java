@@ -0,0 +1,64 @@
+package by.grodnosoft.swt.validation;
+
+import org.junit.Test;
+
+public class IntegerRangeValidatorTest {
+
+	@Test
+	public void validateValuesInRange() throws Exception {
+		IntegerRangeValidator validator = new IntegerRangeValidator(-10, 10);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("-10"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("+1 0"));
+	}
+
+	@Test
+	public void validateValuesOutOfRange() throws Exception {
+		IntegerRangeValidator validator = new IntegerRangeValidator(-10, 10);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("-11"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("11"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("2147483648"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("5.5"));
+	}
+
+	@Test
+	public void validateExclusiveBounds() throws Exception {
+		IntegerRangeValidator validator = new IntegerRangeValidator(0, false, 100, false);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("0"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("1"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("99"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("100"));
+	}
+
+	@Test
+	public void validateShortValues() throws Exception {
+		IntegerRangeValidator validator = new IntegerRangeValidator(0, 100000);
+		validator.setNumberType(Short.class);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("32767"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("32768"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void createWithIllegalRange() throws Exception {
+		new IntegerRangeValidator(10, -10);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void setIllegalNumberType() throws Exception {
+		new IntegerRangeValidator(-10, 10).setNumberType(Long.class);
+	}
+
+}
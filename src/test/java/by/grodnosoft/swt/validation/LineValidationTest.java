@@ -0,0 +1,220 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.eclipse.swt.custom.TextChangingEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.LineValidation.LineChange;
+import by.grodnosoft.swt.validation.LineValidation.LineValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class LineValidationTest {
+
+	private final List<String> validatedLines = new ArrayList<String>();
+	private final List<LineChange> changes = new ArrayList<LineChange>();
+	private final IValidator numeric = new IValidator() {
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			validatedLines.add(valueToValidate);
+			return ValidationToolkit.NUMERIC.validate(valueToValidate);
+		}
+	};
+	private TestContent content;
+	private LineValidation validation;
+
+	@Before
+	public void setUp() throws Exception {
+		content = new TestContent("1\nx\n3");
+		validation = new LineValidation(content, numeric, new LineValidationCallback() {
+			@Override
+			public void linesValidated(LineChange change) {
+				changes.add(change);
+			}
+		});
+		validatedLines.clear();
+	}
+
+	@Test
+	public void validateAllLinesOnSetup() throws Exception {
+		assertStatuses(ValidationStatus.OK, ValidationStatus.ERROR, ValidationStatus.OK);
+		assertEquals(ValidationStatus.ERROR, validation.getStatus());
+		assertEquals(1, validation.getLineCount(ValidationStatus.ERROR));
+		assertEquals(1, validation.findLine(ValidationStatus.ERROR, 0));
+		assertEquals(-1, validation.findLine(ValidationStatus.ERROR, 2));
+	}
+
+	@Test
+	public void validateOnlyChangedLine() throws Exception {
+		content.replaceTextRange(2, 1, "2");
+		assertEquals(1, validatedLines.size());
+		assertEquals("2", validatedLines.get(0));
+		assertStatuses(ValidationStatus.OK, ValidationStatus.OK, ValidationStatus.OK);
+		LineChange change = changes.get(0);
+		assertEquals(1, change.getStartLine());
+		assertEquals(1, change.getReplacedLineCount());
+		assertEquals(1, change.getResults().size());
+		assertEquals(ValidationStatus.OK, change.getStatus());
+	}
+
+	@Test
+	public void shiftStatusesOnInsertedLines() throws Exception {
+		content.replaceTextRange(0, 0, "a\nb\n");
+		assertEquals(3, validatedLines.size());
+		assertStatuses(ValidationStatus.ERROR, ValidationStatus.ERROR, ValidationStatus.OK,
+				ValidationStatus.ERROR, ValidationStatus.OK);
+		assertEquals(3, validation.getLineCount(ValidationStatus.ERROR));
+		LineChange change = changes.get(0);
+		assertEquals(0, change.getStartLine());
+		assertEquals(1, change.getReplacedLineCount());
+		assertEquals(3, change.getResults().size());
+	}
+
+	@Test
+	public void shiftStatusesOnRemovedLines() throws Exception {
+		content.replaceTextRange(2, 2, "");
+		assertEquals(1, validatedLines.size());
+		assertEquals("3", validatedLines.get(0));
+		assertStatuses(ValidationStatus.OK, ValidationStatus.OK);
+		assertEquals(0, validation.getLineCount(ValidationStatus.ERROR));
+		assertEquals(ValidationStatus.OK, changes.get(0).getStatus());
+		assertEquals(1, changes.get(0).getStartLine());
+		assertEquals(2, changes.get(0).getReplacedLineCount());
+	}
+
+	@Test
+	public void validateAllLinesOnSetText() throws Exception {
+		content.setText("a\n2");
+		assertEquals(2, validatedLines.size());
+		assertStatuses(ValidationStatus.ERROR, ValidationStatus.OK);
+		LineChange change = changes.get(0);
+		assertEquals(0, change.getStartLine());
+		assertEquals(3, change.getReplacedLineCount());
+		assertEquals(2, change.getResults().size());
+	}
+
+	@Test
+	public void stopValidationOnDispose() throws Exception {
+		validation.dispose();
+		content.replaceTextRange(0, 1, "x");
+		assertEquals(0, validatedLines.size());
+		assertEquals(0, changes.size());
+	}
+
+	private void assertStatuses(ValidationStatus... statuses) {
+		assertEquals(statuses.length, validation.getLineCount());
+		for (int i = 0; i < statuses.length; i++) {
+			assertEquals("line " + i, statuses[i], validation.getLineStatus(i));
+		}
+	}
+
+	/**
+	 * Content with "\n" delimited lines firing the same events as content of StyledText does
+	 */
+	private static class TestContent implements StyledTextContent {
+
+		private final List<TextChangeListener> listeners = new ArrayList<TextChangeListener>();
+		private String text;
+
+		TestContent(String text) {
+			this.text = text;
+		}
+
+		@Override
+		public void addTextChangeListener(TextChangeListener listener) {
+			listeners.add(listener);
+		}
+
+		@Override
+		public void removeTextChangeListener(TextChangeListener listener) {
+			listeners.remove(listener);
+		}
+
+		@Override
+		public int getCharCount() {
+			return text.length();
+		}
+
+		@Override
+		public String getLine(int lineIndex) {
+			int start = getOffsetAtLine(lineIndex);
+			int end = text.indexOf('\n', start);
+			return text.substring(start, end >= 0 ? end : text.length());
+		}
+
+		@Override
+		public int getLineAtOffset(int offset) {
+			return countLines(text.substring(0, offset));
+		}
+
+		@Override
+		public int getLineCount() {
+			return countLines(text) + 1;
+		}
+
+		@Override
+		public String getLineDelimiter() {
+			return "\n";
+		}
+
+		@Override
+		public int getOffsetAtLine(int lineIndex) {
+			int offset = 0;
+			for (int i = 0; i < lineIndex; i++) {
+				offset = text.indexOf('\n', offset) + 1;
+			}
+			return offset;
+		}
+
+		@Override
+		public String getTextRange(int start, int length) {
+			return text.substring(start, start + length);
+		}
+
+		@Override
+		public void replaceTextRange(int start, int replaceLength, String newText) {
+			TextChangingEvent changing = new TextChangingEvent(this);
+			changing.start = start;
+			changing.newText = newText;
+			changing.replaceCharCount = replaceLength;
+			changing.newCharCount = newText.length();
+			changing.replaceLineCount = countLines(text.substring(start, start + replaceLength));
+			changing.newLineCount = countLines(newText);
+			for (TextChangeListener listener : listeners) {
+				listener.textChanging(changing);
+			}
+			text = text.substring(0, start) + newText + text.substring(start + replaceLength);
+			for (TextChangeListener listener : listeners) {
+				listener.textChanged(new TextChangedEvent(this));
+			}
+		}
+
+		@Override
+		public void setText(String text) {
+			this.text = text;
+			for (TextChangeListener listener : listeners) {
+				listener.textSet(new TextChangedEvent(this));
+			}
+		}
+
+		private static int countLines(String value) {
+			int count = 0;
+			for (int i = 0; i < value.length(); i++) {
+				if (value.charAt(i) == '\n') {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+}
@@ -0,0 +1,41 @@
+package by.grodnosoft.swt.validation;
+
+import org.junit.Test;
+
+public class LongRangeValidatorTest {
+
+	@Test
+	public void validateValuesInRange() throws Exception {
+		LongRangeValidator validator = new LongRangeValidator(Long.MIN_VALUE, 0);
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate(String.valueOf(Long.MIN_VALUE)));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("-10000000000000"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("0"));
+	}
+
+	@Test
+	public void validateValuesOutOfRange() throws Exception {
+		LongRangeValidator validator = new LongRangeValidator(Long.MIN_VALUE, 0);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("1"));
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate(String.valueOf(Long.MAX_VALUE)));
+	}
+
+	@Test
+	public void validateExclusiveBounds() throws Exception {
+		LongRangeValidator validator = new LongRangeValidator(-5000000000L, false, 5000000000L, true);
+		ValidatorsTestSuite.assertValidationResultERROR(
+				validator, validator.validate("-5000000000"));
+		ValidatorsTestSuite.assertValidationResultOK(
+				validator, validator.validate("5000000000"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void setIllegalNumberType() throws Exception {
+		new LongRangeValidator(-10, 10).setNumberType(Double.class);
+	}
+
+}
@@ -0,0 +1,94 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MembershipValidatorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void validateAllowedValues() throws Exception {
+		File indexFile = folder.newFile("codes.idx");
+		MembershipIndexBuilder.build(Arrays.asList("230000", "220030", "Z\u00fcrich", "a", "ab", "230000"), indexFile, 0.01);
+		MembershipValidator validator = new MembershipValidator(indexFile);
+		assertEquals(5, validator.size());
+		for (String value : new String[] {"230000", "220030", "Z\u00fcrich", "a", "ab", "", null}) {
+			ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate(value));
+		}
+		for (String value : new String[] {"23000", "2300000", "Zurich", "b", "abc", " a"}) {
+			ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate(value));
+		}
+		assertEquals("Value b is not allowed!", validator.validate("b").getMessage());
+	}
+
+	@Test
+	public void validateManyValues() throws Exception {
+		List<String> values = new ArrayList<String>();
+		for (int i = 0; i < 100000; i += 2) {
+			values.add(String.format("PN-%06d", i));
+		}
+		File indexFile = folder.newFile("parts.idx");
+		MembershipIndexBuilder.build(values, indexFile, 0.01);
+		MembershipIndex index = MembershipIndex.open(indexFile);
+		int passedBloomFilter = 0;
+		for (int i = 0; i < 100000; i++) {
+			byte[] value = String.format("PN-%06d", i).getBytes(MembershipIndex.UTF_8);
+			boolean allowed = i % 2 == 0;
+			assertEquals(allowed, index.contains(value));
+			if (index.mightContain(value)) {
+				passedBloomFilter++;
+			} else {
+				assertTrue(!allowed);
+			}
+		}
+		// 50000 allowed values and about 1% of 50000 other ones
+		assertTrue(String.valueOf(passedBloomFilter), passedBloomFilter < 50000 + 1000);
+	}
+
+	@Test
+	public void buildFromTextFile() throws Exception {
+		File valuesFile = folder.newFile("codes.txt");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(valuesFile), "UTF-8");
+		writer.write("  BY12\n\nPL34\r\nBY12\nDE56");
+		writer.close();
+		File indexFile = folder.newFile("codes.idx");
+		assertEquals(3, MembershipIndexBuilder.build(valuesFile, MembershipIndex.UTF_8, indexFile));
+		MembershipValidator validator = new MembershipValidator(indexFile);
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate("BY12"));
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate("DE56"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("  BY12"));
+	}
+
+	@Test
+	public void validateWithEmptyIndex() throws Exception {
+		File indexFile = folder.newFile("empty.idx");
+		MembershipIndexBuilder.build(new ArrayList<String>(), indexFile, 0.01);
+		MembershipValidator validator = new MembershipValidator(indexFile);
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("any"));
+	}
+
+	@Test(expected=IOException.class)
+	public void openNotAnIndexFile() throws Exception {
+		File file = folder.newFile("not.idx");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		writer.write("definitely not an index file");
+		writer.close();
+		new MembershipValidator(file);
+	}
+
+}
@@ -1,5 +1,7 @@
 package by.grodnosoft.swt.validation;
 
+import static org.junit.Assert.assertSame;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -29,5 +31,11 @@ public class NonEmptyValidatorTest {
 		ValidatorsTestSuite.assertValidationResultOK(
 				validator, validator.validate("NonEmptyValue"));
 	}
+
+	@Test
+	public void validateReturnsSharedResults() throws Exception {
+		assertSame(validator.validate("a"), validator.validate("b"));
+		assertSame(validator.validate(null), validator.validate(""));
+	}
 	
 }
@@ -1,5 +1,8 @@
 package by.grodnosoft.swt.validation;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 import java.text.DecimalFormatSymbols;
 
 import org.junit.Before;
@@ -165,4 +168,71 @@ public class NumericValidatorTest {
                 validator, validator.validate("$1"));
     }
 
+    @Test
+    public void validateOverflowingIntegrals() throws Exception {
+        validator.setNumberType(Integer.class);
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("2147483648"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("-2147483649"));
+        validator.setNumberType(Long.class);
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("9223372036854775808"));
+        validator.setNumberType(Short.class);
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("-32768"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("32768"));
+        validator.setNumberType(Byte.class);
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("128"));
+    }
+
+    @Test
+    public void validateIntegralsWithRadix() throws Exception {
+        validator.setNumberType(Integer.class);
+        validator.setRadix(16);
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("7fffffff"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("-7EAD BEEF"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("80000000"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("12g"));
+    }
+
+    @Test
+    public void validateFloatingSyntax() throws Exception {
+        validator.setNumberType(Float.class);
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("1.5e10"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate(".5"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("5.f"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("-Infinity"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("NaN"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("0x1.8p1"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("."));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("1e"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("0x1.8"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("+-1"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("Infinit"));
+    }
+
+    @Test
+    public void validateSharesOkResultAndFormatsMessageLazily() throws Exception {
+        assertSame(validator.validate("1"), validator.validate("2"));
+        assertEquals("Value abc should be a Double number!", validator.validate("abc").getMessage());
+    }
+
 }
@@ -1,8 +1,16 @@
 package by.grodnosoft.swt.validation;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import by.grodnosoft.swt.validation.RegexValidator.Engine;
+
 public class PhoneNumberValidatorTest {
 
     private PhoneNumberValidator validator;
@@ -58,4 +66,79 @@ public class PhoneNumberValidatorTest {
                 validator, validator.validate("00000"));
     }
 
+    @Test
+    public void normalizePhoneNumber() throws Exception {
+        char[] buffer = new char[PhoneNumberValidator.MAX_NORMALIZED_LENGTH];
+        assertEquals(10, validator.normalize("(123) 456-7890", buffer));
+        assertEquals("1234567890", new String(buffer, 0, 10));
+        assertEquals(11, validator.normalize("+1 (123) 456-7890", buffer));
+        assertEquals("11234567890", new String(buffer, 0, 11));
+        assertEquals(13, validator.normalize("375.123.456.7890", buffer));
+        assertEquals("3751234567890", new String(buffer, 0, 13));
+        assertEquals(-1, validator.normalize("123..456..7890", buffer));
+        assertEquals(-1, validator.normalize("12345678901234", buffer));
+        assertNull(validator.normalize("123-456"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void normalizeToShortBuffer() throws Exception {
+        validator.normalize("1234567890", new char[10]);
+    }
+
+    @Test
+    public void normalizeWithDefaultCountryCode() throws Exception {
+        validator.setDefaultCountryCode("375");
+        assertEquals("3751234567890", validator.normalize("123 456 7890"));
+        assertEquals("11234567890", validator.normalize("+1 123 456 7890"));
+    }
+
+    @Test
+    public void validateAllowedCountryCodes() throws Exception {
+        validator.setAllowedCountryCodes("1", "375");
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("+1 (123) 456-7890"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("+375 (123) 456-7890"));
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("(123) 456-7890"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("+7 (123) 456-7890"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("+001 (123) 456-7890"));
+        validator.setAllowedCountryCodes();
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("+7 (123) 456-7890"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setInvalidCountryCode() throws Exception {
+        validator.setAllowedCountryCodes("1", "+44");
+    }
+
+    @Test
+    public void setScannedValidatorIncremental() throws Exception {
+        validator.setIncremental(true);
+        assertSame(validator, validator.createFieldValidator());
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.createFieldValidator().validate("+1 (123) 456-7890"));
+    }
+
+    @Test
+    public void acceptSamePhoneNumbersAsRegex() throws Exception {
+        PhoneNumberValidator regexValidator = new PhoneNumberValidator(Engine.DFA);
+        Random random = new Random(42);
+        String alphabet = "0123456789+-. ()";
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder phoneNumber = new StringBuilder();
+            int length = 8 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                // mostly digits, so that many of generated values are valid
+                phoneNumber.append(alphabet.charAt(random.nextInt(3) > 0
+                        ? random.nextInt(10) : random.nextInt(alphabet.length())));
+            }
+            String value = phoneNumber.toString();
+            assertEquals(value, regexValidator.validate(value).getStatus(), validator.validate(value).getStatus());
+        }
+    }
+
 }
@@ -0,0 +1,106 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RegexDfaTest {
+
+	private static final String EMAIL =
+			"^[_A-Za-z0-9-\\+]+(\\.[_A-Za-z0-9-]+)*@[A-Za-z0-9-]+(\\.[A-Za-z0-9]+)*(\\.[A-Za-z]{2,})$";
+	private static final String PHONE_NUMBER =
+			"^(?:\\+?[0-9]{1,3}[-. ]?)?\\(?([0-9]{3})\\)?[-. ]?([0-9]{3})[-. ]?([0-9]{4})$";
+
+	private static final String[] SUPPORTED_PATTERNS = {
+		EMAIL, PHONE_NUMBER, "[0-9]+", "[A-Za-z0-9]?.*", "^aaa.*bbb$", "\\s", "a|b|", "(ab|a)*b?",
+		"(a*)*", "a{2,4}b{3}c{0,}", "[^a-c]+?x", "\\d\\D\\w\\W\\s\\S", "[-a]x[a-]", "\\x41\\u0042\\.\\$",
+		"(?<name>a+)b", "[\\d\\s.]{1,3}", "(a|ab)(c|bcd)(d*)", "a\\*b", "[ab]]", "x{0}y"
+	};
+
+	private static final String[] UNSUPPORTED_PATTERNS = {
+		"(a)\\1", "a(?=b)", "(?<!a)b", "(?i)abc", "a++", "\\bword\\b", "[a-z&&[^b]]", "a$b", "\\p{L}+",
+		"(?>ab)", "\\Qa\\E"
+	};
+
+	private static final String[] INPUTS = {
+		"", "test@test.com", "email.with.dots@test.host.with.dots", "nohost@test", "wrong+symbols@*host*.com",
+		"123-456-7890", "+1 (123) 456-7890", "123..456..7890", "12345", "aaa123123bbb", "aaabb", " ", "a", "ab",
+		"aabbbc", "aaaabbbccc", "dx", "abx", "1a_!", "-x-", "AB.$", "aab", "1 .", "abcdd", "abd", "a*b", "b]", "y",
+		"line\nbreak", "x\u2028"
+	};
+
+	@Test
+	public void compileSupportedPatterns() throws Exception {
+		for (String regex : SUPPORTED_PATTERNS) {
+			Assert.assertNotNull(regex, RegexDfa.compile(regex));
+		}
+	}
+
+	@Test
+	public void rejectUnsupportedPatterns() throws Exception {
+		for (String regex : UNSUPPORTED_PATTERNS) {
+			Assert.assertNull(regex, RegexDfa.compile(regex));
+		}
+	}
+
+	@Test
+	public void matchSameAsPattern() throws Exception {
+		for (String regex : SUPPORTED_PATTERNS) {
+			RegexDfa dfa = RegexDfa.compile(regex);
+			Pattern pattern = Pattern.compile(regex);
+			for (String input : INPUTS) {
+				assertSameMatch(regex, dfa, pattern, input);
+			}
+		}
+	}
+
+	@Test
+	public void matchRandomInputsSameAsPattern() throws Exception {
+		Random random = new Random(42);
+		String alphabet = "ab.@-+( )019xyAZ_$";
+		for (String regex : SUPPORTED_PATTERNS) {
+			RegexDfa dfa = RegexDfa.compile(regex);
+			Pattern pattern = Pattern.compile(regex);
+			for (int i = 0; i < 2000; i++) {
+				StringBuilder input = new StringBuilder();
+				int length = random.nextInt(16);
+				for (int j = 0; j < length; j++) {
+					input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+				}
+				assertSameMatch(regex, dfa, pattern, input.toString());
+			}
+		}
+	}
+
+	@Test
+	public void detectDeadPrefix() throws Exception {
+		RegexDfa dfa = RegexDfa.compile(PHONE_NUMBER);
+		Assert.assertFalse(RegexDfa.DEAD_STATE == dfa.run(dfa.getStartState(), "123-45", 0, 6));
+		Assert.assertEquals(RegexDfa.DEAD_STATE, dfa.run(dfa.getStartState(), "123-4a", 0, 6));
+	}
+
+	@Test
+	public void reportSurrogatesAsUnsupported() throws Exception {
+		RegexDfa dfa = RegexDfa.compile(".");
+		String input = new String(Character.toChars(0x1F600));
+		Assert.assertEquals(RegexDfa.UNSUPPORTED_INPUT, dfa.run(dfa.getStartState(), input, 0, input.length()));
+	}
+
+	@Test
+	public void matchLongInputInLinearTime() throws Exception {
+		RegexDfa dfa = RegexDfa.compile("(a|aa)*b");
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			input.append('a');
+		}
+		Assert.assertFalse(dfa.isAccepting(dfa.run(dfa.getStartState(), input, 0, input.length())));
+	}
+
+	private static void assertSameMatch(String regex, RegexDfa dfa, Pattern pattern, String input) {
+		int state = dfa.run(dfa.getStartState(), input, 0, input.length());
+		Assert.assertEquals(regex + " on " + input, pattern.matcher(input).matches(), dfa.isAccepting(state));
+	}
+
+}
@@ -1,7 +1,12 @@
 package by.grodnosoft.swt.validation;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
 public class RegexValidatorTest {
 
     @Test
@@ -49,4 +54,61 @@ public class RegexValidatorTest {
                 validator, validator.validate("aaabb"));
 
     }
+
+    @Test
+    public void validateWithDfaEngine() throws Exception {
+        RegexValidator validator = new RegexValidator("^aaa.*bbb$", RegexValidator.Engine.DFA);
+        Assert.assertEquals(RegexValidator.Engine.DFA, validator.getEngine());
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("aaa123123bbb"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("aaabb"));
+    }
+
+    @Test
+    public void fallbackToJavaRegexEngine() throws Exception {
+        RegexValidator validator = new RegexValidator("(a+)\\1", RegexValidator.Engine.DFA);
+        Assert.assertEquals(RegexValidator.Engine.JAVA_REGEX, validator.getEngine());
+        ValidatorsTestSuite.assertValidationResultOK(
+                validator, validator.validate("aaaa"));
+        ValidatorsTestSuite.assertValidationResultERROR(
+                validator, validator.validate("aaa"));
+    }
+
+    @Test
+    public void validateIncrementally() throws Exception {
+        RegexValidator validator = new RegexValidator("[0-9]{3}-[0-9]{4}", RegexValidator.Engine.DFA);
+        validator.setIncremental(true);
+        IValidator fieldValidator = validator.createFieldValidator();
+        assertStatus(validator, ValidationStatus.WARNING, fieldValidator.validate("1"));
+        assertStatus(validator, ValidationStatus.WARNING, fieldValidator.validate("123-"));
+        assertStatus(validator, ValidationStatus.OK, fieldValidator.validate("123-4567"));
+        assertStatus(validator, ValidationStatus.ERROR, fieldValidator.validate("123-45678"));
+        assertStatus(validator, ValidationStatus.ERROR, fieldValidator.validate("123-45678-"));
+        assertStatus(validator, ValidationStatus.WARNING, fieldValidator.validate("12"));
+        assertStatus(validator, ValidationStatus.ERROR, fieldValidator.validate("12a"));
+        assertStatus(validator, ValidationStatus.OK, fieldValidator.validate(""));
+    }
+
+    @Test
+    public void validateIncrementallyWithJavaRegexEngine() throws Exception {
+        RegexValidator validator = new RegexValidator("(a+)b\\1");
+        validator.setIncremental(true);
+        IValidator fieldValidator = validator.createFieldValidator();
+        assertStatus(validator, ValidationStatus.WARNING, fieldValidator.validate("aab"));
+        assertStatus(validator, ValidationStatus.WARNING, fieldValidator.validate("aaba"));
+        assertStatus(validator, ValidationStatus.OK, fieldValidator.validate("aabaa"));
+        assertStatus(validator, ValidationStatus.ERROR, fieldValidator.validate("ba"));
+    }
+
+    @Test
+    public void createFieldValidatorWhenNotIncremental() throws Exception {
+        RegexValidator validator = new RegexValidator("[0-9]+", RegexValidator.Engine.DFA);
+        Assert.assertSame(validator, validator.createFieldValidator());
+    }
+
+    private static void assertStatus(IValidator validator, ValidationStatus status, ValidationResult result) {
+        Assert.assertSame(validator, result.getValidator());
+        Assert.assertEquals(status, result.getStatus());
+    }
 }
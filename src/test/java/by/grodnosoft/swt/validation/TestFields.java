@@ -0,0 +1,48 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assume.assumeTrue;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTError;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+/**
+ * Creates text fields for tests of {@link ValidationToolkit.ValidationContext} in a shell which is never opened.
+ * Tests which create a field are skipped if there is no display to create it on, i.e. on a headless build machine.
+ * Tests drive the context directly instead of sending events.
+ */
+public final class TestFields {
+
+	private static Shell shell;
+	private static boolean headless;
+
+	private TestFields() {
+	}
+
+	/**
+	 * @throws org.junit.internal.AssumptionViolatedException if there is no display
+	 */
+	public static Text create(String text) {
+		assumeTrue(sharedShell() != null);
+		Text field = new Text(shell, SWT.SINGLE);
+		field.setText(text);
+		return field;
+	}
+
+	private static synchronized Shell sharedShell() {
+		if (shell == null && !headless) {
+			try {
+				shell = new Shell(Display.getDefault());
+			} catch (SWTError e) {
+				headless = true;
+			} catch (LinkageError e) {
+				// native library of SWT could not be loaded
+				headless = true;
+			}
+		}
+		return shell;
+	}
+
+}
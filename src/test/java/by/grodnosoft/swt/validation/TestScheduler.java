@@ -0,0 +1,90 @@
+package by.grodnosoft.swt.validation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.widgets.Control;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.UIScheduler;
+
+/**
+ * Headless stand-in for a display, runnables are run only when test asks to
+ */
+public class TestScheduler implements UIScheduler {
+
+	private final Map<Runnable, Integer> timers = new LinkedHashMap<Runnable, Integer>();
+	private final List<Runnable> asyncRunnables = new ArrayList<Runnable>();
+	private Control focusControl;
+
+	@Override
+	public synchronized void timerExec(int delay, Runnable runnable) {
+		if (delay < 0) {
+			timers.remove(runnable);
+		} else {
+			timers.put(runnable, delay);
+		}
+	}
+
+	@Override
+	public synchronized void asyncExec(Runnable runnable) {
+		asyncRunnables.add(runnable);
+	}
+
+	@Override
+	public Control getFocusControl() {
+		return focusControl;
+	}
+
+	public void setFocusControl(Control focusControl) {
+		this.focusControl = focusControl;
+	}
+
+	public synchronized int getTimerCount() {
+		return timers.size();
+	}
+
+	public synchronized int getAsyncCount() {
+		return asyncRunnables.size();
+	}
+
+	/**
+	 * Runs timers scheduled so far as if their delays passed
+	 */
+	public void runTimers() {
+		List<Runnable> runnables;
+		synchronized (this) {
+			runnables = new ArrayList<Runnable>(timers.keySet());
+			timers.clear();
+		}
+		for (Runnable runnable : runnables) {
+			runnable.run();
+		}
+	}
+
+	/**
+	 * @return <code>false</code> if there was no runnable to run
+	 */
+	public boolean runNextAsync() {
+		Runnable runnable;
+		synchronized (this) {
+			if (asyncRunnables.isEmpty()) {
+				return false;
+			}
+			runnable = asyncRunnables.remove(0);
+		}
+		runnable.run();
+		return true;
+	}
+
+	/**
+	 * Runs runnables until there are none left, including ones scheduled by them
+	 */
+	public void runAsync() {
+		while (runNextAsync()) {
+			// next one
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package by.grodnosoft.swt.validation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IContentAccessor;
+import by.grodnosoft.swt.validation.ValidationToolkit.ITextAccessor;
+
+public class TextAccessorsTest {
+
+	public static class FieldWithText {
+		public String getText() {
+			return "text";
+		}
+	}
+
+	public static class InheritedFieldWithText extends FieldWithText {
+	}
+
+	public static class RegisteredField {
+	}
+
+	public static class RegisteredSubField extends RegisteredField {
+	}
+
+	public static class FieldWithoutText {
+	}
+
+	public static class FieldRegisteredLater {
+		public String getText() {
+			return "text";
+		}
+	}
+
+	public static class FieldWithContent {
+		final StringBuilder content = new StringBuilder("content");
+	}
+
+	@Test
+	public void readDeclaredGetText() throws Exception {
+		Assert.assertEquals("text", TextAccessors.getText(new FieldWithText()));
+	}
+
+	@Test
+	public void readInheritedGetText() throws Exception {
+		Assert.assertEquals("text", TextAccessors.getText(new InheritedFieldWithText()));
+	}
+
+	@Test
+	public void accessorIsResolvedOnce() throws Exception {
+		Assert.assertSame(
+				TextAccessors.forClass(FieldWithText.class), TextAccessors.forClass(FieldWithText.class));
+	}
+
+	@Test
+	public void readWithRegisteredAccessor() throws Exception {
+		TextAccessors.register(RegisteredField.class, new ITextAccessor<RegisteredField>() {
+			@Override
+			public String getText(RegisteredField field) {
+				return "registered";
+			}
+		});
+		Assert.assertEquals("registered", TextAccessors.getText(new RegisteredField()));
+		Assert.assertEquals("registered", TextAccessors.getText(new RegisteredSubField()));
+	}
+
+	@Test(expected=RuntimeException.class)
+	public void readFieldWithoutGetText() throws Exception {
+		TextAccessors.getText(new FieldWithoutText());
+	}
+
+	@Test
+	public void accessorOfFieldWithoutGetTextIsResolvedOnce() throws Exception {
+		Assert.assertSame(
+				TextAccessors.forClass(FieldWithoutText.class), TextAccessors.forClass(FieldWithoutText.class));
+	}
+
+	@Test
+	public void registerAccessorOfResolvedClass() throws Exception {
+		Assert.assertEquals("text", TextAccessors.getText(new FieldRegisteredLater()));
+		TextAccessors.register(FieldRegisteredLater.class, new ITextAccessor<FieldRegisteredLater>() {
+			@Override
+			public String getText(FieldRegisteredLater field) {
+				return "registered";
+			}
+		});
+		Assert.assertEquals("registered", TextAccessors.getText(new FieldRegisteredLater()));
+	}
+
+	@Test
+	public void readContentWithRegisteredAccessor() throws Exception {
+		TextAccessors.register(FieldWithContent.class, new IContentAccessor<FieldWithContent>() {
+			@Override
+			public String getText(FieldWithContent field) {
+				return field.content.toString();
+			}
+
+			@Override
+			public CharSequence getContent(FieldWithContent field) {
+				return field.content;
+			}
+		});
+		FieldWithContent field = new FieldWithContent();
+		Assert.assertSame(field.content, TextAccessors.getContent(field));
+		Assert.assertEquals("content", TextAccessors.getText(field));
+	}
+
+	@Test
+	public void readContentAsText() throws Exception {
+		Assert.assertEquals("text", TextAccessors.getContent(new FieldWithText()));
+	}
+
+}
@@ -0,0 +1,111 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class TrieValidatorTest {
+
+	private TrieValidator validator;
+
+	@Before
+	public void setUp() throws Exception {
+		validator = new TrieValidator("Minsk", "Grodno", "Gomel", "Mogilev", "Brest", "Vitebsk", "Min", "Grodno", "");
+	}
+
+	@Test
+	public void validateValues() throws Exception {
+		assertEquals(7, validator.size());
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate(null));
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate(""));
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate("Grodno"));
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate("Min"));
+		ValidatorsTestSuite.assertValidationResultOK(validator, validator.validate("Minsk"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("Grodn0"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("Grodnoo"));
+		ValidatorsTestSuite.assertValidationResultERROR(validator, validator.validate("grodno"));
+	}
+
+	@Test
+	public void warnAboutViablePrefixes() throws Exception {
+		assertEquals(ValidationStatus.WARNING, validator.validate("G").getStatus());
+		assertEquals(ValidationStatus.WARNING, validator.validate("Gro").getStatus());
+		assertEquals(ValidationStatus.WARNING, validator.validate("Mins").getStatus());
+		assertEquals("Value \"Gro\" is incomplete", validator.validate("Gro").getMessage());
+	}
+
+	@Test
+	public void suggestValues() throws Exception {
+		assertEquals(Arrays.asList("Gomel", "Grodno"), validator.suggest("G", 10));
+		assertEquals(Arrays.asList("Min", "Minsk"), validator.suggest("Mi", 10));
+		assertEquals(Arrays.asList("Brest", "Gomel"), validator.suggest("", 2));
+		assertEquals(new ArrayList<String>(), validator.suggest("X", 10));
+	}
+
+	@Test
+	public void validateFieldWhileTyping() throws Exception {
+		IValidator field = validator.createFieldValidator();
+		String[] values = {"G", "Gr", "Grx", "Grxy", "Gr", "Gro", "Grodno", "Grodnoo", "Grod", "Minsk", "", "Vitebsk"};
+		for (String value : values) {
+			assertEquals(value, validator.validate(value).getStatus(), field.validate(value).getStatus());
+		}
+	}
+
+	@Test
+	public void validateFieldTypedCharByChar() throws Exception {
+		IValidator field = validator.createFieldValidator();
+		String value = "";
+		for (char c : "Minskx".toCharArray()) {
+			value += c;
+			assertEquals(value, validator.validate(value).getStatus(), field.validate(value).getStatus());
+		}
+		// appended to the value validated before the previous one
+		assertEquals(ValidationStatus.OK, field.validate("Min").getStatus());
+		assertEquals(ValidationStatus.WARNING, field.validate("Mins").getStatus());
+		assertEquals(ValidationStatus.ERROR, field.validate("Minsx").getStatus());
+		assertEquals(ValidationStatus.WARNING, field.validate("G").getStatus());
+	}
+
+	@Test
+	public void validateFieldLikeWholeValues() throws Exception {
+		Random random = new Random(42);
+		List<String> vocabulary = new ArrayList<String>();
+		for (int i = 0; i < 500; i++) {
+			vocabulary.add(randomString(random, 1 + random.nextInt(8)));
+		}
+		TrieValidator trie = new TrieValidator(vocabulary);
+		IValidator field = trie.createFieldValidator();
+		String value = "";
+		for (int i = 0; i < 5000; i++) {
+			int action = random.nextInt(4);
+			if (action == 0 && !value.isEmpty()) {
+				value = value.substring(0, value.length() - 1);
+			} else if (action == 1) {
+				value = vocabulary.get(random.nextInt(vocabulary.size()));
+			} else {
+				value = value + randomString(random, 1);
+			}
+			ValidationStatus expected = vocabulary.contains(value) || value.isEmpty()
+					? ValidationStatus.OK : trie.suggest(value, 1).isEmpty() ? ValidationStatus.ERROR : ValidationStatus.WARNING;
+			assertEquals(value, expected, field.validate(value).getStatus());
+		}
+	}
+
+	private static String randomString(Random random, int length) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.append((char) ('a' + random.nextInt(3)));
+		}
+		return builder.toString();
+	}
+
+}
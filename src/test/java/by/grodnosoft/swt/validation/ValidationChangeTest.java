@@ -0,0 +1,251 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Text;
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationChangeCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationContext;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.IMessageSupplier;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class ValidationChangeTest {
+
+	private final List<ValidationResult> results = new ArrayList<ValidationResult>();
+	private ValidationChange.Tracker tracker;
+	private ValidationContext ctx;
+
+	@Before
+	public void setUp() throws Exception {
+		tracker = new ValidationChange.Tracker(new ValidationChangeCallback() {
+			@Override
+			public void validationChanged(ValidationChange change) {
+			}
+		});
+	}
+
+	@Test
+	public void reportEveryFieldFirst() throws Exception {
+		ValidationChange change = tracker.track(result(ValidationStatus.OK));
+		assertNotNull(change);
+		assertEquals(1, change.getChangedFields().size());
+		assertEquals(ValidationStatus.OK, change.getStatus(null));
+		assertEquals(1, change.getFieldCount(ValidationStatus.OK));
+		assertEquals(0, change.getFieldCount(ValidationStatus.ERROR));
+	}
+
+	@Test
+	public void skipUnchangedResult() throws Exception {
+		tracker.track(result(ValidationStatus.ERROR, "Wrong"));
+		assertNull(tracker.track(result(ValidationStatus.ERROR, "Wrong")));
+	}
+
+	@Test
+	public void reportChangedStatus() throws Exception {
+		tracker.track(result(ValidationStatus.OK));
+		ValidationChange change = tracker.track(result(ValidationStatus.WARNING, "Incomplete"));
+		assertNotNull(change);
+		assertEquals(ValidationStatus.WARNING, change.getStatus());
+		assertEquals(ValidationStatus.WARNING, change.getStatus(null));
+		assertEquals(1, change.getResults(null).size());
+		assertEquals(1, change.getFieldCount(ValidationStatus.WARNING));
+		assertEquals(0, change.getFieldCount(ValidationStatus.OK));
+	}
+
+	@Test
+	public void reportChangedMessage() throws Exception {
+		tracker.track(result(ValidationStatus.ERROR, "Wrong"));
+		assertNotNull(tracker.track(result(ValidationStatus.ERROR, "Too long")));
+	}
+
+	@Test
+	public void ignoreMessagesOfValidResults() throws Exception {
+		tracker.track(result(ValidationStatus.OK, "Fine"));
+		assertNull(tracker.track(result(ValidationStatus.OK, "Still fine")));
+	}
+
+	@Test
+	public void compareMessagesOfNotValidResultsOnly() throws Exception {
+		ValidationResult previous = new ValidationResult(ValidationStatus.ERROR);
+		previous.addChildResult(new ValidationResult(ValidationStatus.OK), true);
+		previous.addChildResult(new ValidationResult(ValidationStatus.ERROR, "Wrong", null), true);
+		tracker.track(previous);
+		ValidationResult next = new ValidationResult(ValidationStatus.ERROR);
+		next.addChildResult(new ValidationResult(ValidationStatus.ERROR, "Wrong", null), true);
+		assertNull(tracker.track(next));
+	}
+
+	@Test
+	public void notCreateMessagesOfValidResults() throws Exception {
+		tracker.track(result(ValidationStatus.OK));
+		ValidationResult next = new ValidationResult(ValidationStatus.OK);
+		next.addChildResult(ValidationResult.lazy(ValidationStatus.OK, new IMessageSupplier() {
+			@Override
+			public String getMessage() {
+				throw new AssertionError("Message of valid result should not be created");
+			}
+		}, null), true);
+		assertNull(tracker.track(next));
+	}
+
+	@Test
+	public void reportChangedFieldsInOrderTheyWereSetUp() throws Exception {
+		Text[] fields = setupFields("1", "2", "3", "4");
+		ctx.fieldModified(fields[0], -1);
+		ValidationChange change = tracker.track(lastResult());
+		assertEquals(Arrays.asList(fields), change.getChangedFields());
+		assertEquals(4, change.getFieldCount(ValidationStatus.OK));
+
+		TestScheduler scheduler = new TestScheduler();
+		ctx.setScheduler(scheduler);
+		ctx.setDebounceDelay(100);
+		fields[2].setText("x");
+		fields[0].setText("y");
+		fields[1].setText("2");
+		ctx.fieldModified(fields[2], -1);
+		ctx.fieldModified(fields[0], -1);
+		ctx.fieldModified(fields[1], -1);
+		scheduler.runTimers();
+		change = tracker.track(lastResult());
+		assertEquals(Arrays.<Control>asList(fields[0], fields[2]), change.getChangedFields());
+		assertEquals(ValidationStatus.ERROR, change.getStatus(fields[0]));
+		assertEquals(ValidationStatus.OK, change.getStatus(fields[1]));
+		assertEquals(2, change.getFieldCount(ValidationStatus.OK));
+		assertEquals(2, change.getFieldCount(ValidationStatus.ERROR));
+	}
+
+	@Test
+	public void reportRemovedFields() throws Exception {
+		Text[] fields = setupFields("1", "x", "3");
+		ctx.fieldModified(fields[0], -1);
+		tracker.track(lastResult());
+		ValidationResult withoutSecond = new ValidationResult(ValidationStatus.OK);
+		for (ValidationResult child : lastResult().getChildren()) {
+			if (child.getField() != fields[1]) {
+				withoutSecond.addChildResult(child, true);
+			}
+		}
+		ValidationChange change = tracker.track(withoutSecond);
+		assertEquals(Arrays.<Control>asList(fields[1]), change.getChangedFields());
+		assertEquals(ValidationStatus.OK, change.getStatus(fields[1]));
+		assertTrue(change.getResults(fields[1]).isEmpty());
+		assertEquals(2, change.getFieldCount(ValidationStatus.OK));
+		assertEquals(0, change.getFieldCount(ValidationStatus.ERROR));
+	}
+
+	@Test
+	public void keepFieldsMissingFromPartialResult() throws Exception {
+		Text[] fields = setupFields("1", "x", "3");
+		TestScheduler scheduler = new TestScheduler();
+		ctx.setScheduler(scheduler);
+		ctx.setTimeSlice(10);
+		ctx.fieldModified(fields[0], -1);
+		scheduler.runAsync();
+		tracker.track(lastResult());
+
+		ctx.setDebounceDelay(100);
+		fields[0].setText("y");
+		fields[2].setText("z");
+		ctx.fieldModified(fields[0], -1);
+		ctx.fieldModified(fields[2], -1);
+		scheduler.runTimers();
+		assertTrue(lastResult().isPartial());
+		ValidationChange change = tracker.track(lastResult());
+		assertEquals(Arrays.<Control>asList(fields[0]), change.getChangedFields());
+		// the third field is not validated yet and keeps its previous status
+		assertEquals(ValidationStatus.OK, change.getStatus(fields[2]));
+		assertEquals(2, change.getFieldCount(ValidationStatus.ERROR));
+		assertEquals(1, change.getFieldCount(ValidationStatus.OK));
+
+		scheduler.runAsync();
+		change = tracker.track(lastResult());
+		assertEquals(Arrays.<Control>asList(fields[2]), change.getChangedFields());
+		assertEquals(3, change.getFieldCount(ValidationStatus.ERROR));
+	}
+
+	@Test
+	public void notifyChangeCallbackOnlyAboutChanges() throws Exception {
+		final List<ValidationChange> changes = new ArrayList<ValidationChange>();
+		ctx = ValidationContext.withChangeCallback(new ValidationChangeCallback() {
+			@Override
+			public void validationChanged(ValidationChange change) {
+				changes.add(change);
+			}
+		});
+		Text field = TestFields.create("1");
+		ctx.setupField(field, ValidationToolkit.NUMERIC);
+		ctx.fieldModified(field, -1);
+		field.setText("2");
+		ctx.fieldModified(field, -1);
+		assertEquals(1, changes.size());
+		field.setText("x");
+		ctx.fieldModified(field, -1);
+		assertEquals(2, changes.size());
+		assertEquals(ValidationStatus.ERROR, changes.get(1).getStatus(field));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectNullChangeCallback() throws Exception {
+		ValidationContext.withChangeCallback(null);
+	}
+
+	@Test
+	public void countFieldsAndResults() throws Exception {
+		Text[] fields = setupFields("1", "2", "3");
+		Text fourth = TestFields.create("x");
+		ctx.setupField(fourth, new IValidator[] {ValidationToolkit.NUMERIC, new RegexValidator("[0-9]+")});
+		ctx.fieldModified(fields[0], -1);
+		ValidationChange change = tracker.track(lastResult());
+		assertEquals(3, change.getFieldCount(ValidationStatus.OK));
+		assertEquals(1, change.getFieldCount(ValidationStatus.ERROR));
+		assertEquals(3, change.getResultCount(ValidationStatus.OK));
+		assertEquals(2, change.getResultCount(ValidationStatus.ERROR));
+		assertEquals(0, change.getResultCount(ValidationStatus.WARNING));
+	}
+
+	/**
+	 * @return distinct fields with given text set up on a context validating them as numbers
+	 */
+	private Text[] setupFields(String... texts) throws Exception {
+		ctx = new ValidationContext(new ValidationCallback() {
+			@Override
+			public void validationDone(ValidationResult result) {
+				results.add(result);
+			}
+		});
+		Text[] fields = new Text[texts.length];
+		for (int i = 0; i < texts.length; i++) {
+			fields[i] = TestFields.create(texts[i]);
+		}
+		ctx.setupFields(fields, ValidationToolkit.NUMERIC);
+		return fields;
+	}
+
+	private ValidationResult lastResult() {
+		return results.get(results.size() - 1);
+	}
+
+	private static ValidationResult result(ValidationStatus status) {
+		return result(status, null);
+	}
+
+	private static ValidationResult result(ValidationStatus status, String message) {
+		ValidationResult result = new ValidationResult(status);
+		result.addChildResult(new ValidationResult(status, message, null), true);
+		return result;
+	}
+
+}
@@ -0,0 +1,551 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.swt.widgets.Text;
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.ICrossFieldValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationCallback;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationContext;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class ValidationContextTest {
+
+	private final List<ValidationResult> results = new ArrayList<ValidationResult>();
+	private final List<String> validatedValues = new ArrayList<String>();
+	private final List<Runnable> tasks = new ArrayList<Runnable>();
+	private final IValidator recording = new IValidator() {
+		@Override
+		public ValidationResult validate(String valueToValidate) {
+			validatedValues.add(valueToValidate);
+			return ValidationToolkit.NUMERIC.validate(valueToValidate);
+		}
+	};
+	private final List<String> ruleValues = new ArrayList<String>();
+	private final ICrossFieldValidator sameValues = new ICrossFieldValidator() {
+		@Override
+		public ValidationResult validate(String[] values) {
+			ruleValues.add(Arrays.toString(values));
+			for (String value : values) {
+				if (!value.equals(values[0])) {
+					return new ValidationResult(ValidationStatus.ERROR, "Values differ", null);
+				}
+			}
+			return new ValidationResult(ValidationStatus.OK, null);
+		}
+	};
+	private ValidationContext ctx;
+	private Text first;
+	private Text second;
+	private Text third;
+
+	@Before
+	public void setUp() throws Exception {
+		ctx = new ValidationContext(new ValidationCallback() {
+			@Override
+			public void validationDone(ValidationResult result) {
+				results.add(result);
+			}
+		});
+		first = TestFields.create("1");
+		second = TestFields.create("2");
+		third = TestFields.create("3");
+		ctx.setupFields(new Text[] {first, second, third}, recording);
+	}
+
+	@Test
+	public void validateEveryFieldFirst() throws Exception {
+		ctx.fieldModified(second, -1);
+		assertEquals(3, validatedValues.size());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void validateOnlyModifiedField() throws Exception {
+		ctx.fieldModified(first, -1);
+		validatedValues.clear();
+		second.setText("x");
+		ctx.fieldModified(second, -1);
+		assertEquals(1, validatedValues.size());
+		assertEquals("x", validatedValues.get(0));
+		assertEquals(ValidationStatus.ERROR, lastResult().getStatus());
+		assertFields(lastResult(), first, second, third);
+
+		validatedValues.clear();
+		second.setText("2");
+		ctx.fieldModified(second, 0);
+		assertEquals(1, validatedValues.size());
+		assertEquals(ValidationStatus.OK, lastResult().getStatus());
+	}
+
+	@Test
+	public void validateFieldSetUpAgain() throws Exception {
+		ctx.fieldModified(first, -1);
+		validatedValues.clear();
+		ctx.setupField(third, ValidationToolkit.NON_EMPTY);
+		third.setText("");
+		ctx.fieldModified(first, -1);
+		// results of the third field are outdated by its new validators
+		assertEquals(1, validatedValues.size());
+		assertEquals("1", validatedValues.get(0));
+		List<ValidationResult> children = children(lastResult());
+		assertSame(ValidationToolkit.NON_EMPTY, children.get(2).getValidator());
+		assertEquals(ValidationStatus.ERROR, children.get(2).getStatus());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void notCopySharedResultsAgain() throws Exception {
+		ctx.fieldModified(first, -1);
+		ValidationResult firstResult = children(lastResult()).get(0);
+		first.setText("10");
+		ctx.fieldModified(first, -1);
+		assertSame(firstResult, children(lastResult()).get(0));
+		assertSame(first, firstResult.getField());
+
+		first.setText("x");
+		ctx.fieldModified(first, -1);
+		ValidationResult errorResult = children(lastResult()).get(0);
+		assertEquals(ValidationStatus.ERROR, errorResult.getStatus());
+		assertSame(first, errorResult.getField());
+	}
+
+	@Test
+	public void keepResultsOfFieldsWhenPlannedAgain() throws Exception {
+		ctx.fieldModified(first, -1);
+		validatedValues.clear();
+		Text fourth = TestFields.create("4");
+		ctx.setupField(fourth, recording);
+		ctx.fieldModified(fourth, 3);
+		assertEquals(1, validatedValues.size());
+		assertEquals("4", validatedValues.get(0));
+		assertFields(lastResult(), first, second, third, fourth);
+	}
+
+	@Test
+	public void keepModificationsWhenPlannedAgain() throws Exception {
+		ctx.fieldModified(first, -1);
+		validatedValues.clear();
+		TestScheduler scheduler = debounce();
+		second.setText("x");
+		ctx.fieldModified(second, 1);
+		Text fourth = TestFields.create("4");
+		ctx.setupField(fourth, recording);
+		scheduler.runTimers();
+		// modification of the second field made before the plan was rebuilt is not lost
+		assertEquals(2, validatedValues.size());
+		assertEquals("x", validatedValues.get(0));
+		assertEquals("4", validatedValues.get(1));
+		assertEquals(ValidationStatus.ERROR, lastResult().getStatus());
+		assertFields(lastResult(), first, second, third, fourth);
+	}
+
+	@Test
+	public void findFieldByOutdatedSlot() throws Exception {
+		ctx.fieldModified(first, -1);
+		validatedValues.clear();
+		third.setText("x");
+		ctx.fieldModified(third, 0);
+		ctx.fieldModified(second, 7);
+		assertEquals(2, validatedValues.size());
+		assertEquals("x", validatedValues.get(0));
+		assertEquals("2", validatedValues.get(1));
+
+		ctx.fieldModified(TestFields.create("5"), 0);
+		assertEquals(3, results.size());
+		assertEquals(2, validatedValues.size());
+	}
+
+	@Test
+	public void keepOrderOfFieldsSetUpAgain() throws Exception {
+		ctx.fieldModified(first, -1);
+		ctx.setupField(first, ValidationToolkit.NON_EMPTY);
+		Text fourth = TestFields.create("4");
+		ctx.setupRule(sameValues, fourth, first);
+		ctx.setupField(second, recording);
+		ctx.fieldModified(third, -1);
+		assertSame(ValidationToolkit.NON_EMPTY, children(lastResult()).get(0).getValidator());
+		// field of the rule has no validators, result of the rule is reported for it after results of fields
+		assertFields(lastResult(), first, second, third, fourth);
+	}
+
+	@Test
+	public void runOnlyRulesOfModifiedField() throws Exception {
+		Text fourth = TestFields.create("3");
+		ctx.setupRule(sameValues, first, second);
+		ctx.setupRule(sameValues, third, fourth);
+		ctx.fieldModified(first, -1);
+		assertEquals(Arrays.asList("[1, 2]", "[3, 3]"), ruleValues);
+		List<ValidationResult> children = children(lastResult());
+		// results of rules follow results of fields and are reported for the first field of every rule
+		assertEquals(5, children.size());
+		assertSame(first, children.get(3).getField());
+		assertEquals(ValidationStatus.ERROR, children.get(3).getStatus());
+		assertSame(third, children.get(4).getField());
+		assertEquals(ValidationStatus.OK, children.get(4).getStatus());
+
+		validatedValues.clear();
+		ruleValues.clear();
+		fourth.setText("4");
+		ctx.fieldModified(fourth, -1);
+		// the field has no validators of its own, only its rule is run
+		assertEquals(0, validatedValues.size());
+		assertEquals(Arrays.asList("[3, 4]"), ruleValues);
+		assertEquals(ValidationStatus.ERROR, children(lastResult()).get(4).getStatus());
+
+		ruleValues.clear();
+		second.setText("1");
+		ctx.fieldModified(second, -1);
+		assertEquals(Arrays.asList("1"), validatedValues);
+		assertEquals(Arrays.asList("[1, 1]"), ruleValues);
+		assertEquals(ValidationStatus.OK, children(lastResult()).get(3).getStatus());
+	}
+
+	@Test
+	public void runRuleOnceForFieldsModifiedAtOnce() throws Exception {
+		ctx.setupRule(sameValues, first, second, third);
+		ctx.fieldModified(first, -1);
+		ruleValues.clear();
+		TestScheduler scheduler = debounce();
+		first.setText("5");
+		second.setText("5");
+		third.setText("5");
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(second, -1);
+		ctx.fieldModified(third, -1);
+		scheduler.runTimers();
+		assertEquals(Arrays.asList("[5, 5, 5]"), ruleValues);
+		assertEquals(ValidationStatus.OK, lastResult().getStatus());
+	}
+
+	@Test
+	public void keepResultsOfRulesWhenPlannedAgain() throws Exception {
+		ctx.setupRule(sameValues, first, second);
+		ctx.fieldModified(first, -1);
+		ruleValues.clear();
+		ctx.setupRule(sameValues, third, third);
+		ctx.fieldModified(third, -1);
+		// the new rule is run for the first time, the old one keeps its result
+		assertEquals(Arrays.asList("[3, 3]"), ruleValues);
+		assertEquals(ValidationStatus.ERROR, lastResult().getStatus());
+		assertEquals(5, children(lastResult()).size());
+	}
+
+	@Test
+	public void dropOutdatedResultOfRule() throws Exception {
+		ctx.setupRule(sameValues, first, second);
+		ctx.fieldModified(first, -1);
+		TestScheduler scheduler = runInBackground();
+		second.setText("1");
+		ctx.fieldModified(second, -1);
+		// validated on UI thread before background validation is delivered
+		ctx.setExecutor(null);
+		second.setText("3");
+		ctx.fieldModified(second, -1);
+		assertEquals(2, results.size());
+		ruleValues.clear();
+		runTasks();
+		assertEquals(0, ruleValues.size());
+		scheduler.runAsync();
+		// results stored on UI thread are newer, so nothing is validated again
+		assertEquals(3, results.size());
+		assertEquals(0, ruleValues.size());
+		assertEquals(ValidationStatus.ERROR, children(lastResult()).get(3).getStatus());
+	}
+
+	@Test
+	public void validateOnceAfterBurstOfModifications() throws Exception {
+		TestScheduler scheduler = debounce();
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(second, -1);
+		assertEquals(0, results.size());
+		assertEquals(0, validatedValues.size());
+		assertEquals(1, scheduler.getTimerCount());
+		scheduler.runTimers();
+		assertEquals(1, results.size());
+		assertEquals(3, validatedValues.size());
+
+		validatedValues.clear();
+		first.setText("x");
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(first, -1);
+		scheduler.runTimers();
+		assertEquals(2, results.size());
+		assertEquals(1, validatedValues.size());
+		assertEquals(ValidationStatus.ERROR, lastResult().getStatus());
+	}
+
+	@Test
+	public void flushPostponedValidation() throws Exception {
+		TestScheduler scheduler = debounce();
+		ctx.flush();
+		assertEquals(0, results.size());
+		ctx.fieldModified(second, -1);
+		ctx.flush();
+		assertEquals(1, results.size());
+		assertEquals(0, scheduler.getTimerCount());
+		ctx.flush();
+		assertEquals(1, results.size());
+	}
+
+	@Test
+	public void dropPostponedValidationOfRemovedField() throws Exception {
+		TestScheduler scheduler = debounce();
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(second, -1);
+		ctx.fieldRemoved(first);
+		assertEquals(1, scheduler.getTimerCount());
+		ctx.fieldRemoved(second);
+		assertEquals(0, scheduler.getTimerCount());
+		ctx.flush();
+		assertEquals(0, results.size());
+	}
+
+	@Test
+	public void validateFocusedFieldFirst() throws Exception {
+		TestScheduler scheduler = sliceTime();
+		scheduler.setFocusControl(third);
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(second, -1);
+		ctx.fieldModified(third, -1);
+		// modifications are validated once all events are sent
+		assertEquals(0, validatedValues.size());
+		assertEquals(1, scheduler.getAsyncCount());
+		scheduler.runNextAsync();
+		assertEquals(Arrays.asList("3"), validatedValues);
+		assertTrue(lastResult().isPartial());
+		assertFields(lastResult(), third);
+
+		scheduler.runAsync();
+		assertEquals(Arrays.asList("3", "1", "2"), validatedValues);
+		assertEquals(2, results.size());
+		assertFalse(lastResult().isPartial());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void validateSingleModificationAtOnce() throws Exception {
+		TestScheduler scheduler = sliceTime();
+		ctx.fieldModified(first, -1);
+		scheduler.runAsync();
+		validatedValues.clear();
+		second.setText("x");
+		ctx.fieldModified(second, -1);
+		ctx.fieldModified(second, -1);
+		scheduler.runNextAsync();
+		assertEquals(Arrays.asList("x"), validatedValues);
+		assertFalse(lastResult().isPartial());
+		assertEquals(0, scheduler.getAsyncCount());
+	}
+
+	@Test
+	public void flushPendingBatches() throws Exception {
+		TestScheduler scheduler = sliceTime();
+		ctx.fieldModified(first, -1);
+		ctx.fieldModified(second, -1);
+		scheduler.runNextAsync();
+		assertTrue(lastResult().isPartial());
+		ctx.flush();
+		assertEquals(2, results.size());
+		assertFalse(lastResult().isPartial());
+		assertFields(lastResult(), first, second, third);
+		// batch left in the queue does nothing
+		scheduler.runAsync();
+		assertEquals(2, results.size());
+		assertEquals(3, validatedValues.size());
+	}
+
+	@Test
+	public void revalidateInBatches() throws Exception {
+		TestScheduler scheduler = sliceTime();
+		ctx.fieldModified(first, -1);
+		scheduler.runAsync();
+		validatedValues.clear();
+		results.clear();
+		ctx.revalidate();
+		assertEquals(Arrays.asList("1"), validatedValues);
+		assertTrue(lastResult().isPartial());
+		scheduler.runAsync();
+		assertEquals(Arrays.asList("1", "2", "3"), validatedValues);
+		assertFalse(lastResult().isPartial());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void validateInBackground() throws Exception {
+		TestScheduler scheduler = runInBackground();
+		ctx.fieldModified(first, -1);
+		assertEquals(0, validatedValues.size());
+		assertEquals(1, tasks.size());
+		runTasks();
+		assertEquals(3, validatedValues.size());
+		assertEquals(0, results.size());
+		scheduler.runAsync();
+		assertEquals(1, results.size());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void submitOneValidationAtOnce() throws Exception {
+		TestScheduler scheduler = runInBackground();
+		ctx.fieldModified(first, -1);
+		second.setText("x");
+		ctx.fieldModified(second, -1);
+		assertEquals(1, tasks.size());
+		runTasks();
+		assertEquals(3, validatedValues.size());
+		validatedValues.clear();
+
+		// modification made meanwhile is validated by the next validation submitted on delivery
+		scheduler.runAsync();
+		assertEquals(0, results.size());
+		assertEquals(1, tasks.size());
+		runTasks();
+		scheduler.runAsync();
+		assertEquals(1, results.size());
+		assertEquals(1, validatedValues.size());
+		assertEquals("x", validatedValues.get(0));
+		assertEquals(ValidationStatus.ERROR, lastResult().getStatus());
+	}
+
+	@Test
+	public void validateAgainIfResultsAreOutdated() throws Exception {
+		TestScheduler scheduler = runInBackground();
+		ctx.fieldModified(first, -1);
+		runTasks();
+		scheduler.runAsync();
+		assertEquals(1, results.size());
+
+		third.setText("");
+		ctx.fieldModified(third, -1);
+		ctx.setupField(third, ValidationToolkit.NON_EMPTY);
+		validatedValues.clear();
+		runTasks();
+		// outdated validators are not run and nothing is delivered
+		assertEquals(0, validatedValues.size());
+		scheduler.runAsync();
+		assertEquals(1, results.size());
+		assertEquals(1, tasks.size());
+		runTasks();
+		scheduler.runAsync();
+		assertEquals(2, results.size());
+		assertEquals(0, validatedValues.size());
+		ValidationResult thirdResult = children(lastResult()).get(2);
+		assertSame(ValidationToolkit.NON_EMPTY, thirdResult.getValidator());
+		assertEquals(ValidationStatus.ERROR, thirdResult.getStatus());
+	}
+
+	@Test
+	public void deliverResultsOfOtherFieldsIfValidatorFails() throws Exception {
+		TestScheduler scheduler = runInBackground();
+		IValidator failing = new IValidator() {
+			@Override
+			public ValidationResult validate(String valueToValidate) {
+				throw new IllegalStateException("broken");
+			}
+		};
+		ctx.setupField(first, failing);
+		ctx.fieldModified(first, -1);
+		third.setText("x");
+		ctx.fieldModified(third, -1);
+		runTasks();
+		try {
+			scheduler.runAsync();
+			fail("Exception of validator should be thrown on UI thread");
+		} catch (IllegalStateException e) {
+			assertEquals("broken", e.getMessage());
+		}
+		// modification made meanwhile is submitted before exception is thrown
+		assertEquals(1, tasks.size());
+		runTasks();
+		scheduler.runAsync();
+		assertEquals(1, results.size());
+		List<ValidationResult> children = children(lastResult());
+		assertSame(failing, children.get(0).getValidator());
+		assertEquals(ValidationStatus.ERROR, children.get(0).getStatus());
+		assertEquals(ValidationStatus.OK, children.get(1).getStatus());
+		assertEquals(ValidationStatus.ERROR, children.get(2).getStatus());
+		assertFields(lastResult(), first, second, third);
+	}
+
+	@Test
+	public void validateOnUIThreadIfRejected() throws Exception {
+		ctx.setScheduler(new TestScheduler());
+		ctx.setExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		});
+		ctx.fieldModified(first, -1);
+		assertEquals(1, results.size());
+		assertEquals(3, validatedValues.size());
+		ctx.fieldModified(first, -1);
+		assertEquals(2, results.size());
+		assertEquals(4, validatedValues.size());
+	}
+
+	private TestScheduler sliceTime() {
+		TestScheduler scheduler = new TestScheduler();
+		ctx.setScheduler(scheduler);
+		ctx.setTimeSlice(10);
+		return scheduler;
+	}
+
+	private TestScheduler runInBackground() {
+		TestScheduler scheduler = new TestScheduler();
+		ctx.setScheduler(scheduler);
+		ctx.setExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+		return scheduler;
+	}
+
+	private void runTasks() {
+		while (!tasks.isEmpty()) {
+			tasks.remove(0).run();
+		}
+	}
+
+	private TestScheduler debounce() {
+		TestScheduler scheduler = new TestScheduler();
+		ctx.setScheduler(scheduler);
+		ctx.setDebounceDelay(100);
+		return scheduler;
+	}
+
+	private ValidationResult lastResult() {
+		return results.get(results.size() - 1);
+	}
+
+	static List<ValidationResult> children(ValidationResult result) {
+		return new ArrayList<ValidationResult>(result.getChildren());
+	}
+
+	static void assertFields(ValidationResult result, Text... fields) {
+		List<ValidationResult> children = children(result);
+		assertEquals(fields.length, children.size());
+		for (int i = 0; i < fields.length; i++) {
+			assertSame(fields[i], children.get(i).getField());
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.eclipse.swt.widgets.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+
+public class ValidationMetricsTest {
+
+	private NumericValidator validator;
+
+	@Before
+	public void setUp() throws Exception {
+		ValidationMetrics.reset();
+		validator = new NumericValidator() {
+			@Override
+			public String toString() {
+				return "numbers";
+			}
+		};
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ValidationMetrics.setEnabled(false);
+		ValidationMetrics.reset();
+		ValidationMetrics.unregisterMBean();
+	}
+
+	@Test
+	public void disabledByDefault() throws Exception {
+		ValidationMetrics.validate(validator, "1");
+		assertTrue(ValidationMetrics.getValidatorMetrics().isEmpty());
+	}
+
+	@Test
+	public void recordValidatorInvocations() throws Exception {
+		ValidationMetrics.setEnabled(true);
+		ValidationToolkit.validateText(new IValidator[] {validator}, "1", null);
+		ValidationToolkit.validateText(new IValidator[] {validator}, "x", null);
+		ValidationToolkit.validateText(new IValidator[] {validator}, "y", null);
+		ValidationToolkit.validateText(new IValidator[] {validator}, "", null);
+		List<MetricsSnapshot> metrics = ValidationMetrics.getValidatorMetrics();
+		assertEquals(1, metrics.size());
+		MetricsSnapshot snapshot = metrics.get(0);
+		assertEquals("numbers", snapshot.getName());
+		assertEquals(4, snapshot.getCount());
+		assertEquals(2, snapshot.getErrorCount());
+		assertEquals(0.5, snapshot.getErrorRate(), 0);
+		assertEquals(4, sum(snapshot.getHistogram()));
+		assertTrue(snapshot.getP50Nanos() <= snapshot.getP99Nanos());
+		assertTrue(snapshot.getP99Nanos() <= snapshot.getMaxNanos());
+	}
+
+	@Test
+	public void accountIncrementalFieldValidatorsToTheirCreator() throws Exception {
+		RegexValidator regexValidator = new RegexValidator("a+b");
+		regexValidator.setIncremental(true);
+		ValidationMetrics.setEnabled(true);
+		IValidator fieldValidator = regexValidator.createFieldValidator();
+		ValidationMetrics.validate(fieldValidator, "a");
+		ValidationMetrics.validate(fieldValidator, "ab");
+		MetricsSnapshot snapshot = ValidationMetrics.getValidatorMetrics().get(0);
+		assertEquals(regexValidator.toString(), snapshot.getName());
+		assertEquals(2, snapshot.getCount());
+		assertEquals(1, snapshot.getWarningCount());
+	}
+
+	@Test
+	public void recordSingleFieldValidations() throws Exception {
+		Text field = TestFields.create("1");
+		ValidationMetrics.recordField(field, new ValidationResult(ValidationStatus.OK), ValidationMetrics.startTime());
+		ValidationMetrics.setEnabled(true);
+		ValidationMetrics.recordField(field, new ValidationResult(ValidationStatus.ERROR), ValidationMetrics.startTime());
+		List<MetricsSnapshot> metrics = ValidationMetrics.getFieldMetrics();
+		assertEquals(1, metrics.size());
+		assertEquals("Text {1}", metrics.get(0).getName());
+		assertEquals(1, metrics.get(0).getCount());
+		assertEquals(1, metrics.get(0).getErrorCount());
+	}
+
+	@Test
+	public void bucketsArePowersOfTwo() throws Exception {
+		assertEquals(0, MetricsRecorder.bucketOf(0));
+		assertEquals(0, MetricsRecorder.bucketOf(1));
+		assertEquals(1, MetricsRecorder.bucketOf(2));
+		assertEquals(2, MetricsRecorder.bucketOf(3));
+		assertEquals(10, MetricsRecorder.bucketOf(1024));
+		assertEquals(11, MetricsRecorder.bucketOf(1025));
+		assertEquals(MetricsRecorder.BUCKET_COUNT - 1, MetricsRecorder.bucketOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void percentilesComeFromHistogram() throws Exception {
+		MetricsRecorder recorder = new MetricsRecorder();
+		for (int i = 0; i < 99; i++) {
+			recorder.record(ValidationStatus.OK, 100);
+		}
+		recorder.record(ValidationStatus.ERROR, 5000);
+		MetricsSnapshot snapshot = recorder.snapshot("test");
+		assertEquals(128, snapshot.getP50Nanos());
+		assertEquals(128, snapshot.getP99Nanos());
+		assertEquals(5000, snapshot.getPercentileNanos(1));
+		assertEquals((99 * 100 + 5000) / 100, snapshot.getMeanNanos());
+	}
+
+	@Test
+	public void exposeMetricsViaJmx() throws Exception {
+		ValidationMetrics.registerMBean();
+		ValidationMetrics.registerMBean();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = new ObjectName(ValidationMetrics.OBJECT_NAME);
+		server.setAttribute(name, new Attribute("Enabled", true));
+		assertTrue(ValidationMetrics.isEnabled());
+		ValidationMetrics.validate(validator, "x");
+		CompositeData[] validators = (CompositeData[]) server.getAttribute(name, "Validators");
+		assertEquals(1, validators.length);
+		assertEquals("numbers", validators[0].get("name"));
+		assertEquals(1L, validators[0].get("errorCount"));
+	}
+
+	private static long sum(long[] values) {
+		long sum = 0;
+		for (long value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+
+}
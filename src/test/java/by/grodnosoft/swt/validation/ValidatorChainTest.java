@@ -0,0 +1,116 @@
+package by.grodnosoft.swt.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import by.grodnosoft.swt.validation.RegexValidator.Engine;
+import by.grodnosoft.swt.validation.ValidationToolkit.IValidator;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult;
+import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.ValidationStatus;
+import by.grodnosoft.swt.validation.ValidatorChain.Mode;
+
+public class ValidatorChainTest {
+
+	private final IValidator email = new EmailValidator();
+	private final IValidator regexEmail = new EmailValidator(Engine.JAVA_REGEX);
+	private final IValidator nonEmpty = new NonEmptyValidator();
+	private final IValidator numeric = new NumericValidator();
+
+	@Test
+	public void runCheapValidatorsFirst() throws Exception {
+		ValidationResult result = new ValidatorChain(Mode.RUN_ALL, regexEmail, email, nonEmpty).validate("a@b.com");
+		List<IValidator> order = validators(result);
+		assertSame(nonEmpty, order.get(0));
+		assertSame(email, order.get(1));
+		assertSame(regexEmail, order.get(2));
+	}
+
+	@Test
+	public void runAll() throws Exception {
+		ValidationResult result = new ValidatorChain(Mode.RUN_ALL, nonEmpty, numeric, email).validate("");
+		assertEquals(ValidationStatus.ERROR, result.getStatus());
+		assertTrue(result.isCompound());
+		for (ValidationResult child : result.getChildren()) {
+			assertFalse(child.isSkipped());
+		}
+		assertEquals("Value should be non-empty!", result.getMessage());
+	}
+
+	@Test
+	public void stopAtFirstError() throws Exception {
+		ValidationResult result = new ValidatorChain(Mode.AND, email, nonEmpty).validate("");
+		assertEquals(ValidationStatus.ERROR, result.getStatus());
+		List<ValidationResult> children = new ArrayList<ValidationResult>(result.getChildren());
+		assertSame(nonEmpty, children.get(0).getValidator());
+		assertEquals(ValidationStatus.ERROR, children.get(0).getStatus());
+		assertSame(email, children.get(1).getValidator());
+		assertTrue(children.get(1).isSkipped());
+		assertEquals(ValidationStatus.OK, children.get(1).getStatus());
+
+		result = new ValidatorChain(Mode.AND, email, nonEmpty).validate("a@b.com");
+		assertEquals(ValidationStatus.OK, result.getStatus());
+		assertNull(result.getMessage());
+	}
+
+	@Test
+	public void stopAtFirstValid() throws Exception {
+		ValidatorChain chain = new ValidatorChain(Mode.OR, numeric, email);
+		ValidationResult result = chain.validate("42");
+		assertEquals(ValidationStatus.OK, result.getStatus());
+		List<ValidationResult> children = new ArrayList<ValidationResult>(result.getChildren());
+		assertFalse(children.get(0).isSkipped());
+		assertTrue(children.get(1).isSkipped());
+
+		result = chain.validate("a@b.com");
+		assertEquals(ValidationStatus.OK, result.getStatus());
+		assertEquals(ValidationStatus.ERROR, result.getChildren().iterator().next().getStatus());
+
+		result = chain.validate("neither");
+		assertEquals(ValidationStatus.ERROR, result.getStatus());
+		assertTrue(result.getMessage().contains(" or "));
+	}
+
+	@Test
+	public void costOfChainIsSumOfCosts() throws Exception {
+		assertEquals(1 + 10 + 100, new ValidatorChain(Mode.AND, nonEmpty, numeric, regexEmail).getCost());
+		assertEquals(10, new ValidatorChain(Mode.AND, new EmailValidator(Engine.DFA)).getCost());
+	}
+
+	@Test
+	public void createFieldChainOfIncrementalValidators() throws Exception {
+		ValidatorChain chain = new ValidatorChain(Mode.AND, nonEmpty, numeric);
+		assertSame(chain, chain.createFieldValidator());
+		RegexValidator regex = new RegexValidator("ab+c", Engine.DFA);
+		regex.setIncremental(true);
+		chain = new ValidatorChain(Mode.AND, nonEmpty, regex);
+		IValidator fieldChain = chain.createFieldValidator();
+		assertNotSame(chain, fieldChain);
+		ValidationResult result = fieldChain.validate("ab");
+		assertEquals(ValidationStatus.WARNING, result.getStatus());
+		assertSame(chain, result.getValidator());
+		assertEquals(ValidationStatus.OK, fieldChain.validate("abc").getStatus());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void createEmptyChain() throws Exception {
+		new ValidatorChain(Mode.AND);
+	}
+
+	private static List<IValidator> validators(ValidationResult result) {
+		List<IValidator> validators = new ArrayList<IValidator>();
+		for (ValidationResult child : result.getChildren()) {
+			validators.add(child.getValidator());
+		}
+		return validators;
+	}
+
+}
@@ -13,7 +13,15 @@ import by.grodnosoft.swt.validation.ValidationToolkit.ValidationResult.Validatio
 @SuiteClasses({
         NonEmptyValidatorTest.class, EmailValidatorTest.class,
         NumericValidatorTest.class, PhoneNumberValidatorTest.class,
-        RegexValidatorTest.class
+        RegexValidatorTest.class, TextAccessorsTest.class,
+        IntegerRangeValidatorTest.class, LongRangeValidatorTest.class,
+        DoubleRangeValidatorTest.class, RegexDfaTest.class,
+        BulkValidationEngineTest.class, ValidationMetricsTest.class,
+        ValidatorChainTest.class, CachingValidatorTest.class,
+        MembershipValidatorTest.class, TrieValidatorTest.class,
+        CharSequenceValidatorTest.class, LineValidationTest.class,
+        ValidationChangeTest.class, ColumnValidationTest.class,
+        ValidationContextTest.class
 })
 public class ValidatorsTestSuite {
 